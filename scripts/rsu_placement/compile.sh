@@ -1,4 +1,4 @@
 #!/bin/sh
 rm -rf ../../bin
 mkdir ../../bin
-javac -classpath "../../lib/cloudsim-4.0.jar:../../lib/commons-math3-3.6.1.jar:../../lib/colt.jar:../../lib/kd.jar" -sourcepath ../../src ../../src/edu/boun/edgecloudsim/applications/rsu_placement/MainApp.java -d ../../bin
+javac -classpath "../../lib/cloudsim-4.0.jar:../../lib/commons-math3-3.6.1.jar:../../lib/colt.jar:../../lib/kd.jar" -sourcepath ../../src ../../src/edu/boun/edgecloudsim/applications/rsu_placement/MainApp.java ../../src/edu/boun/edgecloudsim/applications/rsu_placement/BatchApp.java ../../src/edu/boun/edgecloudsim/applications/rsu_placement/utils/TrafficTraceConverter.java ../../src/edu/boun/edgecloudsim/applications/rsu_placement/placement/PlacementApp.java ../../src/edu/boun/edgecloudsim/applications/rsu_placement/placement/SurrogateApp.java ../../src/edu/boun/edgecloudsim/applications/rsu_placement/placement/SearchApp.java -d ../../bin
@@ -0,0 +1,8 @@
+#!/bin/sh
+
+script_root_path="$(dirname "$(sh readLink.sh "$0")")"
+
+for xml_file in ${script_root_path}/input/traffic*.xml
+do
+	java -classpath '../../bin:../../lib/cloudsim-4.0.jar:../../lib/commons-math3-3.6.1.jar:../../lib/colt.jar:../../lib/kd.jar' edu.boun.edgecloudsim.applications.rsu_placement.utils.TrafficTraceConverter $xml_file
+done
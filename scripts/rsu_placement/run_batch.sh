@@ -0,0 +1,17 @@
+#!/bin/bash
+
+#runs all scenarios of simulation.list in a single JVM, see BatchApp
+#usage: run_batch.sh [number of simulation threads] [number of trace loader threads]
+script_root_path="$(dirname "$(sh readLink.sh "$0")")"
+root_out_folder=${script_root_path}/output
+num_of_simulation_threads=${1:-1}
+num_of_loader_threads=${2:-1}
+min_no_of_vehicles=500
+max_no_of_vehicles=4000
+inc=500
+
+date=$(date '+%d-%m-%Y_%H-%M')
+simulation_out_folder=${root_out_folder}/${date}
+mkdir -p $simulation_out_folder
+
+java -Xms7168m -Xmx12288m -classpath '../../bin:../../lib/cloudsim-4.0.jar:../../lib/commons-math3-3.6.1.jar:../../lib/colt.jar:../../lib/kd.jar' edu.boun.edgecloudsim.applications.rsu_placement.BatchApp ${script_root_path}/config ${script_root_path}/simulation.list $simulation_out_folder ${script_root_path}/input $min_no_of_vehicles $max_no_of_vehicles $inc $num_of_loader_threads $num_of_simulation_threads > ${simulation_out_folder}/batch.log
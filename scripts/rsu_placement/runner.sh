@@ -12,6 +12,10 @@ scenario_conf_file=${script_root_path}/config/${scenario_name}.properties
 scenario_edge_devices_file=${script_root_path}/config/${edge_devices_file}
 scenario_applications_file=${script_root_path}/config/${applications_file}
 scenario_input_file=${script_root_path}/input/traffic${number_of_vehicles}.xml
+#prefer the memory-mapped binary trace if it is created by convert_traces.sh
+if [ -f ${script_root_path}/input/traffic${number_of_vehicles}.bin ]; then
+	scenario_input_file=${script_root_path}/input/traffic${number_of_vehicles}.bin
+fi
 
 mkdir -p $scenario_out_folder
 java -Xms7168m -Xmx12288m -classpath '../../bin:../../lib/cloudsim-4.0.jar:../../lib/commons-math3-3.6.1.jar:../../lib/colt.jar:../../lib/kd.jar' edu.boun.edgecloudsim.applications.rsu_placement.MainApp $scenario_conf_file $scenario_edge_devices_file $scenario_applications_file $scenario_out_folder $scenario_input_file $number_of_vehicles > ${scenario_out_folder}.log
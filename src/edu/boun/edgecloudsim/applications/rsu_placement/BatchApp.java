@@ -0,0 +1,195 @@
+package edu.boun.edgecloudsim.applications.rsu_placement;
+
+import edu.boun.edgecloudsim.applications.rsu_placement.utils.FileUtils;
+import edu.boun.edgecloudsim.core.SimContext;
+import edu.boun.edgecloudsim.core.SimManager;
+import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.utils.SimLogger;
+import edu.boun.edgecloudsim.utils.SimUtils;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.CloudSim;
+
+import java.io.File;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Runs every (simulation.list entry, number of vehicles) scenario of run_scenarios.sh in a single JVM.
+ *
+ * CloudSim keeps its simulation kernel in static state, so each simulation worker loads its own
+ * copy of the simulator with a {@link ScenarioClassLoader}; the workers run scenarios
+ * concurrently and a worker runs its scenarios one after another. Traces are the expensive,
+ * immutable part of a scenario: each trace is parsed once by BatchApp, shared by all placements
+ * of the list, and the traces of the next vehicle counts are loaded by a bounded worker pool
+ * while the current simulations are running. The scenarios of at most two vehicle counts are
+ * in flight, so only their traces and the prefetched ones are kept in memory.
+ *
+ * The console output of the simulations is printed only if there is a single simulation worker,
+ * otherwise the lines of the concurrent scenarios would be interleaved.
+ *
+ * usage: BatchApp config_folder simulation_list output_folder input_folder min_vehicles max_vehicles increment [loader_threads] [simulation_threads]
+ */
+public class BatchApp {
+
+    public static void main(String[] args) throws Exception {
+        Log.disable();
+        SimLogger.enablePrintLog();
+
+        if (args.length < 7) {
+            SimLogger.printLine("usage: BatchApp <config folder> <simulation list> <output folder> <input folder> <min vehicles> <max vehicles> <increment> [loader threads] [simulation threads]");
+            System.exit(0);
+        }
+        String configFolder = args[0];
+        List<String[]> simulations = Files.readAllLines(Paths.get(args[1])).stream()
+                .map(String::trim)
+                .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                .map(line -> line.split(";"))
+                .collect(Collectors.toList());
+        String outputFolder = args[2];
+        String inputFolder = args[3];
+        int minNumberOfVehicles = Integer.parseInt(args[4]);
+        int maxNumberOfVehicles = Integer.parseInt(args[5]);
+        int increment = Integer.parseInt(args[6]);
+        int loaderThreads = args.length > 7 ? Integer.parseInt(args[7]) : 1;
+        int simulationThreads = args.length > 8 ? Integer.parseInt(args[8]) : 1;
+        boolean printLog = simulationThreads == 1;
+
+        List<Integer> vehicleCounts = new ArrayList<>();
+        for (int i = minNumberOfVehicles; i <= maxNumberOfVehicles; i += increment) {
+            vehicleCounts.add(i);
+        }
+
+        //a worker is the runScenario method of its own class loader, taken from the queue while a scenario is running
+        BlockingQueue<Method> workers = new ArrayBlockingQueue<>(simulationThreads);
+        for (int i = 0; i < simulationThreads; i++) {
+            Class<?> workerClass = new ScenarioClassLoader(BatchApp.class.getClassLoader()).loadClass(BatchApp.class.getName());
+            workers.add(workerClass.getMethod("runScenario", String.class, String.class, String.class, String.class,
+                    TrafficTrace.class, int.class, boolean.class));
+        }
+
+        Date batchStartDate = Calendar.getInstance().getTime();
+        ExecutorService traceLoader = Executors.newFixedThreadPool(loaderThreads);
+        ExecutorService simulationPool = Executors.newFixedThreadPool(simulationThreads);
+        try {
+            List<Future<TrafficTrace>> traces = new ArrayList<>();
+            List<List<Future<?>>> scenarios = new ArrayList<>(); //scenarios of each vehicle count
+            for (int i = 0; i < vehicleCounts.size(); i++) {
+                //keep at most loaderThreads traces ahead of the running simulations
+                while (traces.size() < vehicleCounts.size() && traces.size() <= i + loaderThreads) {
+                    TrafficTrace trace = new TrafficTrace(getInputFile(inputFolder, vehicleCounts.get(traces.size())));
+                    traces.add(traceLoader.submit(() -> {
+                        trace.load();
+                        return trace;
+                    }));
+                }
+                TrafficTrace trafficTrace = traces.get(i).get();
+                traces.set(i, null);
+                if (i >= 2) {
+                    waitFor(scenarios.get(i - 2));
+                    scenarios.set(i - 2, null);
+                }
+
+                int numberOfVehicles = vehicleCounts.get(i);
+                List<Future<?>> vehicleCountScenarios = new ArrayList<>();
+                for (String[] simulation : simulations) {
+                    String configFile = configFolder + File.separator + simulation[0] + ".properties";
+                    String edgeDevicesFile = configFolder + File.separator + simulation[1];
+                    String applicationsFile = configFolder + File.separator + simulation[2];
+                    String scenarioOutputFolder = outputFolder + File.separator + simulation[1] + File.separator + numberOfVehicles;
+                    vehicleCountScenarios.add(simulationPool.submit(() -> {
+                        Method worker = workers.take();
+                        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+                        Thread.currentThread().setContextClassLoader(worker.getDeclaringClass().getClassLoader());
+                        try {
+                            String scenarioName = new File(edgeDevicesFile).getName() + " - #vehicles: " + numberOfVehicles;
+                            Date scenarioStartDate = Calendar.getInstance().getTime();
+                            SimLogger.printLine("----------------------------------------------------------------------");
+                            SimLogger.printLine("Scenario " + scenarioName);
+                            try {
+                                worker.invoke(null, configFile, edgeDevicesFile, applicationsFile, scenarioOutputFolder,
+                                        trafficTrace, numberOfVehicles, printLog);
+                            } catch (InvocationTargetException e) {
+                                SimLogger.printLine("Scenario " + scenarioName + " has been terminated due to an unexpected error: " + e.getCause());
+                                throw new IllegalStateException("Scenario " + scenarioName + " failed", e.getCause());
+                            }
+                            Date scenarioEndDate = Calendar.getInstance().getTime();
+                            SimLogger.printLine("Scenario " + scenarioName + " finished. It took "
+                                    + SimUtils.getTimeDifference(scenarioStartDate, scenarioEndDate));
+                        } finally {
+                            Thread.currentThread().setContextClassLoader(contextClassLoader);
+                            workers.put(worker);
+                        }
+                        return null;
+                    }));
+                }
+                scenarios.add(vehicleCountScenarios);
+            }
+            for (List<Future<?>> vehicleCountScenarios : scenarios) {
+                if (vehicleCountScenarios != null) {
+                    waitFor(vehicleCountScenarios);
+                }
+            }
+        } finally {
+            traceLoader.shutdownNow();
+            simulationPool.shutdownNow();
+        }
+        Date batchEndDate = Calendar.getInstance().getTime();
+        SimLogger.printLine("Batch finished. It took " + SimUtils.getTimeDifference(batchStartDate, batchEndDate));
+    }
+
+    private static void waitFor(List<Future<?>> futures) throws Exception {
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+
+    private static String getInputFile(String inputFolder, int numberOfVehicles) {
+        String binaryFile = inputFolder + File.separator + "traffic" + numberOfVehicles + FileUtils.BINARY_TRACE_EXTENSION;
+        if (new File(binaryFile).exists()) {
+            return binaryFile;
+        }
+        return inputFolder + File.separator + "traffic" + numberOfVehicles + ".xml";
+    }
+
+    /*
+     * Runs a scenario with the simulator of the class loader which defined this class,
+     * BatchApp calls it on the class of a ScenarioClassLoader by reflection. Errors are
+     * thrown instead of exiting, the batch fails and the other workers are not killed
+     */
+    public static void runScenario(String configFile, String edgeDevicesFile, String applicationsFile,
+                                   String outputFolder, TrafficTrace trafficTrace, int numberOfVehicles, boolean printLog) throws Exception {
+        Log.disable();
+        if (printLog) {
+            SimLogger.enablePrintLog();
+        }
+        //every scenario gets its own settings and logger, only the trace is shared
+        SimSettings SS = SimSettings.newInstance();
+        if (SS.initialize(configFile, edgeDevicesFile, applicationsFile) == false) {
+            throw new IllegalStateException("cannot initialize simulation settings of " + configFile + ", " + edgeDevicesFile + ", " + applicationsFile);
+        }
+        SimContext simContext = new SimContext(SS);
+        simContext.getLogger().setPrintLogEnabled(printLog);
+        if (SS.getFileLoggingEnabled()) {
+            new File(outputFolder).mkdirs();
+            simContext.getLogger().setFileLogEnabled(true);
+            SimUtils.cleanOutputFolder(outputFolder);
+        }
+        simContext.getLogger().simStarted(outputFolder, "SIMRESULT_" + numberOfVehicles + "VEHICLES");
+
+        CloudSim.init(2, Calendar.getInstance(), false, 0.01);
+        SimManager manager = new SimManager(new TrafficScenarioFactory(simContext, numberOfVehicles, trafficTrace), numberOfVehicles, "", "");
+        manager.startSimulation();
+    }
+}
@@ -0,0 +1,43 @@
+package edu.boun.edgecloudsim.applications.rsu_placement;
+
+import edu.boun.edgecloudsim.applications.rsu_placement.model.RSU;
+
+import java.util.Arrays;
+
+/**
+ * Serving RSU of each vehicle sample of the trace, i.e. of each (timestep, vehicle) pair.
+ * A sample is associated with the nearest RSU which covers it, or with {@link #NOT_IN_RANGE}.
+ * Entries are calculated on first use and then answered by an array read.
+ */
+public class RSUAssociationTable {
+
+    public static final int NOT_IN_RANGE = -1;
+    private static final int NOT_CALCULATED = -2;
+
+    private final TrafficTrace trafficTrace;
+    private final RSUOrchestrator rsuOrchestrator;
+    private final int[] servingRSUIds; //<sample index, rsu id>
+
+    public RSUAssociationTable(TrafficTrace trafficTrace, RSUOrchestrator rsuOrchestrator) {
+        this.trafficTrace = trafficTrace;
+        this.rsuOrchestrator = rsuOrchestrator;
+        this.servingRSUIds = new int[trafficTrace.getSampleCount()];
+        Arrays.fill(servingRSUIds, NOT_CALCULATED);
+    }
+
+    //serving RSU of the vehicle at the latest sample which is not after the given time
+    public int getServingRSUId(int vehicleId, double time) {
+        int sample = trafficTrace.getSampleIndex(vehicleId, time);
+        return sample < 0 ? NOT_IN_RANGE : getServingRSUId(sample);
+    }
+
+    public int getServingRSUId(int sample) {
+        int rsuId = servingRSUIds[sample];
+        if (rsuId == NOT_CALCULATED) {
+            RSU rsu = rsuOrchestrator.findRSUInRangeByCoordinate(trafficTrace.getSampleLat(sample), trafficTrace.getSampleLng(sample));
+            rsuId = rsu == null ? NOT_IN_RANGE : rsu.getId();
+            servingRSUIds[sample] = rsuId;
+        }
+        return rsuId;
+    }
+}
@@ -0,0 +1,118 @@
+package edu.boun.edgecloudsim.applications.rsu_placement;
+
+import edu.boun.edgecloudsim.applications.rsu_placement.model.RSU;
+import edu.boun.edgecloudsim.applications.rsu_placement.utils.LocalProjection;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Uniform grid over the RSU positions, used to find the nearest RSU which covers a point.
+ * RSU positions are projected to planar meters when they are created and the cell size is
+ * the WLAN range, so only the 3x3 cells around a point can hold an RSU in range.
+ * RSUs of a cell are stored contiguously (CSR layout) and a query does not allocate.
+ */
+public class RSUGridIndex {
+
+    private final RSU[] rsus;
+    private final double[] rsuX;
+    private final double[] rsuY;
+    private final double range;
+    private final double rangeSquare;
+    private final LocalProjection projection;
+    private final double originX, originY;
+    private final int columns, rows;
+    private final int[] cellOffsets; //rsus of cell c are in [cellOffsets[c], cellOffsets[c+1])
+    private final int[] cellRSUs;
+
+    public RSUGridIndex(List<RSU> rsuList, double range, LocalProjection projection) {
+        this(rsuList.toArray(new RSU[0]), range, projection);
+    }
+
+    //index over planar positions only, queries return the index of the position
+    public RSUGridIndex(double[] x, double[] y, double range, LocalProjection projection) {
+        this(null, x, y, range, projection);
+    }
+
+    private RSUGridIndex(RSU[] rsus, double range, LocalProjection projection) {
+        this(rsus, Arrays.stream(rsus).mapToDouble(RSU::getX).toArray(),
+                Arrays.stream(rsus).mapToDouble(RSU::getY).toArray(), range, projection);
+    }
+
+    private RSUGridIndex(RSU[] rsus, double[] x, double[] y, double range, LocalProjection projection) {
+        this.range = range;
+        this.projection = projection;
+        this.rangeSquare = range * range;
+        int n = x.length;
+        this.rsus = rsus;
+
+        rsuX = x.clone();
+        rsuY = y.clone();
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE, maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            minX = Math.min(minX, rsuX[i]);
+            minY = Math.min(minY, rsuY[i]);
+            maxX = Math.max(maxX, rsuX[i]);
+            maxY = Math.max(maxY, rsuY[i]);
+        }
+        originX = n == 0 ? 0 : minX;
+        originY = n == 0 ? 0 : minY;
+        columns = n == 0 ? 1 : (int) ((maxX - minX) / range) + 1;
+        rows = n == 0 ? 1 : (int) ((maxY - minY) / range) + 1;
+
+        cellOffsets = new int[columns * rows + 1];
+        int[] rsuCells = new int[n];
+        for (int i = 0; i < n; i++) {
+            rsuCells[i] = cellOf(rsuX[i], rsuY[i]);
+            cellOffsets[rsuCells[i] + 1]++;
+        }
+        for (int c = 0; c < columns * rows; c++) {
+            cellOffsets[c + 1] += cellOffsets[c];
+        }
+        int[] next = new int[columns * rows];
+        System.arraycopy(cellOffsets, 0, next, 0, next.length);
+        cellRSUs = new int[n];
+        for (int i = 0; i < n; i++) {
+            cellRSUs[next[rsuCells[i]]++] = i;
+        }
+    }
+
+    //nearest RSU in range of the given point, null if the point is not covered
+    public RSU findRSUInRange(double lat, double lng) {
+        int nearest = findIndexInRange(lat, lng);
+        return nearest < 0 ? null : rsus[nearest];
+    }
+
+    //index of the nearest position in range of the given point, -1 if the point is not covered
+    public int findIndexInRange(double lat, double lng) {
+        double x = projection.toX(lng);
+        double y = projection.toY(lat);
+        int column = (int) Math.floor((x - originX) / range);
+        int row = (int) Math.floor((y - originY) / range);
+        if (column < -1 || column > columns || row < -1 || row > rows) {
+            return -1;
+        }
+        int nearest = -1;
+        double nearestDistance = rangeSquare;
+        for (int r = Math.max(row - 1, 0); r <= Math.min(row + 1, rows - 1); r++) {
+            for (int c = Math.max(column - 1, 0); c <= Math.min(column + 1, columns - 1); c++) {
+                int cell = r * columns + c;
+                for (int k = cellOffsets[cell]; k < cellOffsets[cell + 1]; k++) {
+                    int i = cellRSUs[k];
+                    double distance = LocalProjection.distanceSquare(rsuX[i], rsuY[i], x, y);
+                    if (distance <= nearestDistance) {
+                        nearestDistance = distance;
+                        nearest = i;
+                    }
+                }
+            }
+        }
+        return nearest;
+    }
+
+    private int cellOf(double x, double y) {
+        int column = Math.min((int) ((x - originX) / range), columns - 1);
+        int row = Math.min((int) ((y - originY) / range), rows - 1);
+        return row * columns + column;
+    }
+}
@@ -10,34 +10,33 @@
 
 package edu.boun.edgecloudsim.applications.rsu_placement;
 
-import edu.boun.edgecloudsim.applications.rsu_placement.model.Coordinate;
-import edu.boun.edgecloudsim.applications.rsu_placement.model.RSU;
+import edu.boun.edgecloudsim.core.SimContext;
 import edu.boun.edgecloudsim.core.SimManager;
 import edu.boun.edgecloudsim.core.SimSettings;
 import edu.boun.edgecloudsim.edge_client.Task;
-import edu.boun.edgecloudsim.edge_server.EdgeHost;
-import edu.boun.edgecloudsim.mobility.MobilityModel;
 import edu.boun.edgecloudsim.network.NetworkModel;
 import edu.boun.edgecloudsim.utils.Location;
 import org.cloudbus.cloudsim.core.CloudSim;
 
-import java.util.List;
-import java.util.Objects;
-
 public class RSUMM1Queue extends NetworkModel {
 	private double wLanPoissonMean; //seconds
 	private double avgTaskInputSize; //bytes
 	private double avgTaskOutputSize; //bytes
+	private SimContext simContext;
+	private TrafficTrace trafficTrace;
+	private RSUOccupancyIndex occupancyIndex;
 
-	public RSUMM1Queue(int _numberOfMobileDevices) {
+	public RSUMM1Queue(int _numberOfMobileDevices, SimContext simContext, TrafficTrace trafficTrace) {
 		super(_numberOfMobileDevices, "");
+		this.simContext = simContext;
+		this.trafficTrace = trafficTrace;
 	}
 
 
 	@Override
 	public void initialize() {
 		//get interarrival time and task sizes
-		SimSettings SS = SimSettings.getInstance();
+		SimSettings SS = simContext.getSettings();
 		wLanPoissonMean = SS.getTaskLookUpTable()[0][2];
 		avgTaskInputSize = SS.getTaskLookUpTable()[0][5];
 		avgTaskOutputSize = SS.getTaskLookUpTable()[0][6];
@@ -48,7 +47,7 @@ public class RSUMM1Queue extends NetworkModel {
 	public double getUploadDelay(int vehicleId, int destDeviceId, Task task) {
 		//vehicle to edge device (wifi access point)
 		return calculateMM1(0,
-				SimSettings.getInstance().getWlanBandwidth(),
+				simContext.getSettings().getWlanBandwidth(),
 				wLanPoissonMean,
 				avgTaskInputSize,
 				getVehicleCountInTheSameRSURange(task));
@@ -60,36 +59,39 @@ public class RSUMM1Queue extends NetworkModel {
 	public double getDownloadDelay(int sourceDeviceId, int vehicleId, Task task) {
 		//edge device (wifi access point) to mobile device
 		return calculateMM1(0,
-				SimSettings.getInstance().getWlanBandwidth(),
+				simContext.getSettings().getWlanBandwidth(),
 				wLanPoissonMean,
 				avgTaskOutputSize,
 				getVehicleCountInTheSameRSURange(task));
 	}
 
 	private long getVehicleCountInTheSameRSURange(Task task){
-		TrafficLoadGenerator trafficLoadGenerator = (TrafficLoadGenerator) SimManager.getInstance().getLoadGeneratorModel();
-		RSUOrchestrator rsuOrchestrator = (RSUOrchestrator) SimManager.getInstance().getEdgeOrchestrator();
-		MobilityModel trafficMobility = SimManager.getInstance().getMobilityModel();
-		Integer rsuId;
+		RSUOrchestrator rsuOrchestrator = (RSUOrchestrator) simContext.getSimManager().getEdgeOrchestrator();
+		int rsuId;
 		if(task.getVmId() >= 0){
 			//for download delay, vm is already assigned
 			rsuId = task.getVmId();
 		}else{
 			//for upload delay, vm is not assigned
-			rsuId = rsuOrchestrator.findRSUInRangeByCoordinate(task.getCoordinate()).getId();
+			rsuId = rsuOrchestrator.findRSUIdInRange(task.getMobileDeviceId(), task.getCreationTime());
+		}
+		return getOccupancyIndex().getVehicleCount(rsuId, CloudSim.clock());
+	}
+
+	//created on first use since the RSUs are known after the edge datacenters are started
+	private RSUOccupancyIndex getOccupancyIndex(){
+		if(occupancyIndex == null){
+			SimManager simManager = simContext.getSimManager();
+			occupancyIndex = new RSUOccupancyIndex(trafficTrace,
+					(TrafficLoadGenerator) simManager.getLoadGeneratorModel(),
+					(RSUOrchestrator) simManager.getEdgeOrchestrator(),
+					simManager.getEdgeServerManager().getDatacenterList().size());
 		}
-		double time = CloudSim.clock();
-		List<Integer> vehicleIdList = trafficLoadGenerator.getVehicleIdListByTime(time);
-		return vehicleIdList.stream()
-				.map(e -> (Coordinate)trafficMobility.getLocation(e, time))
-				.map(rsuOrchestrator::findRSUInRangeByCoordinate)
-				.filter(Objects::nonNull)
-				.map(RSU::getId)
-				.filter(rsuId::equals)
-				.count();
+		return occupancyIndex;
 	}
 
-	private double calculateMM1(double propogationDelay, int bandwidth /*Kbps*/, double poissonMean, double avgTaskSize /*KB*/, long deviceCount){
+	//also used by the placement surrogate, which makes the same delay assumptions
+	public static double calculateMM1(double propogationDelay, int bandwidth /*Kbps*/, double poissonMean, double avgTaskSize /*KB*/, long deviceCount){
 		double bps, mu, lamda, totalLamda;
 		//avgTaskSize = avgTaskSize * 1000d; //data defined in bytes
 		bps = (bandwidth * 1000d) / 8d; //convert from Kbps to Byte per seconds
@@ -14,8 +14,8 @@ package edu.boun.edgecloudsim.applications.rsu_placement;
 
 import edu.boun.edgecloudsim.applications.rsu_placement.model.Coordinate;
 import edu.boun.edgecloudsim.applications.rsu_placement.model.RSU;
-import edu.boun.edgecloudsim.core.SimManager;
-import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.applications.rsu_placement.utils.LocalProjection;
+import edu.boun.edgecloudsim.core.SimContext;
 import edu.boun.edgecloudsim.edge_server.EdgeServerManager;
 import edu.boun.edgecloudsim.edge_server.EdgeVM;
 import edu.boun.edgecloudsim.edge_server.EdgeVmAllocationPolicy_Custom;
@@ -36,22 +36,26 @@ import java.util.stream.DoubleStream;
 
 public class RSUManager extends EdgeServerManager{
 	private int hostIdCounter;
+	private LocalProjection projection;
+	private SimContext simContext;
 
-	public RSUManager() {
+	public RSUManager(SimContext simContext) {
 		hostIdCounter = 0;
+		this.simContext = simContext;
 	}
 
 	@Override
 	public void initialize() {
+		projection = LocalProjection.forSimulationArea(simContext.getSettings());
 	}
 
 	@Override
 	public VmAllocationPolicy getVmAllocationPolicy(List<? extends Host> hostList, int dataCenterIndex) {
-		return new EdgeVmAllocationPolicy_Custom(hostList,dataCenterIndex);
+		return new EdgeVmAllocationPolicy_Custom(hostList,dataCenterIndex,simContext);
 	}
 	
 	public void startDatacenters() throws Exception{
-		Document doc = SimSettings.getInstance().getEdgeDevicesDocument();
+		Document doc = simContext.getSettings().getEdgeDevicesDocument();
 		NodeList datacenterList = doc.getElementsByTagName("datacenter");
 		for (int i = 0; i < datacenterList.getLength(); i++) {
 			Node datacenterNode = datacenterList.item(i);
@@ -65,7 +69,7 @@ public class RSUManager extends EdgeServerManager{
 		int vmCounter=0;
 		
 		//Create VMs for each hosts
-		Document doc = SimSettings.getInstance().getEdgeDevicesDocument();
+		Document doc = simContext.getSettings().getEdgeDevicesDocument();
 		NodeList datacenterList = doc.getElementsByTagName("datacenter");
 		for (int i = 0; i < datacenterList.getLength(); i++) {
 			Node datacenterNode = datacenterList.item(i);
@@ -87,7 +91,7 @@ public class RSUManager extends EdgeServerManager{
 					double mips = Double.parseDouble(vmElement.getElementsByTagName("mips").item(0).getTextContent());
 					int ram = Integer.parseInt(vmElement.getElementsByTagName("ram").item(0).getTextContent());
 					long storage = Long.parseLong(vmElement.getElementsByTagName("storage").item(0).getTextContent());
-					long bandwidth = SimSettings.getInstance().getWlanBandwidth() / (hostNodeList.getLength()+vmNodeList.getLength());
+					long bandwidth = simContext.getSettings().getWlanBandwidth() / (hostNodeList.getLength()+vmNodeList.getLength());
 					
 					//VM Parameters		
 					EdgeVM vm = new EdgeVM(vmCounter, brockerId, mips, numOfCores, ram, bandwidth, storage, vmm, new CloudletSchedulerTimeShared());
@@ -114,7 +118,7 @@ public class RSUManager extends EdgeServerManager{
 		// for each datacenter...
 		for(int i= 0; i<localDatacenters.size(); i++) {
 			Host host = localDatacenters.get(i).getHostList().get(0);
-			EdgeVM vm = SimManager.getInstance().getEdgeServerManager().getVmList(host.getId()).get(0);
+			EdgeVM vm = simContext.getSimManager().getEdgeServerManager().getVmList(host.getId()).get(0);
 			double vmUtilization = vm.getCloudletScheduler().getTotalUtilizationOfCpu(CloudSim.clock());
 			utilizationArr[i+1] = vmUtilization;
 		}
@@ -174,7 +178,7 @@ public class RSUManager extends EdgeServerManager{
 			double mips = Double.parseDouble(hostElement.getElementsByTagName("mips").item(0).getTextContent());
 			int ram = Integer.parseInt(hostElement.getElementsByTagName("ram").item(0).getTextContent());
 			long storage = Long.parseLong(hostElement.getElementsByTagName("storage").item(0).getTextContent());
-			long bandwidth = SimSettings.getInstance().getWlanBandwidth() / hostNodeList.getLength();
+			long bandwidth = simContext.getSettings().getWlanBandwidth() / hostNodeList.getLength();
 			
 			// 2. A Machine contains one or more PEs or CPUs/Cores. Therefore, should
 			//    create a list to store these PEs before creating
@@ -197,6 +201,8 @@ public class RSUManager extends EdgeServerManager{
 					peList,
 					new VmSchedulerSpaceShared(peList),
 					coordinate);
+			//project once, range checks are done on the planar position
+			host.setPosition(projection.toX(x_pos), projection.toY(y_pos));
 			hostList.add(host);
 			hostIdCounter++;
 		}
@@ -0,0 +1,55 @@
+package edu.boun.edgecloudsim.applications.rsu_placement;
+
+/**
+ * Number of task generating vehicles in the range of each RSU at each timestep of the trace.
+ * The counts of a timestep are calculated on the first query for that timestep and cached,
+ * so the M/M/1 delay calculation does not scan all vehicles for every upload and download.
+ */
+public class RSUOccupancyIndex {
+
+    private final TrafficTrace trafficTrace;
+    private final TrafficLoadGenerator trafficLoadGenerator;
+    private final RSUOrchestrator rsuOrchestrator;
+    private final int numberOfRSUs;
+    private final int[][] vehicleCounts; //<timestep, <rsu id, vehicle count>>
+
+    public RSUOccupancyIndex(TrafficTrace trafficTrace, TrafficLoadGenerator trafficLoadGenerator,
+                             RSUOrchestrator rsuOrchestrator, int numberOfRSUs) {
+        this.trafficTrace = trafficTrace;
+        this.trafficLoadGenerator = trafficLoadGenerator;
+        this.rsuOrchestrator = rsuOrchestrator;
+        this.numberOfRSUs = numberOfRSUs;
+        this.vehicleCounts = new int[trafficTrace.getTimeStepCount()][];
+    }
+
+    public int getVehicleCount(int rsuId, double time) {
+        return getVehicleCounts(time)[rsuId];
+    }
+
+    //vehicle counts of all RSUs at the timestep which covers the given time
+    public int[] getVehicleCounts(double time) {
+        int step = trafficTrace.getTimeStepIndex(time);
+        int[] counts = vehicleCounts[step];
+        if (counts == null) {
+            counts = countVehicles(trafficTrace.getTimeStepTime(step));
+            vehicleCounts[step] = counts;
+        }
+        return counts;
+    }
+
+    private int[] countVehicles(double stepTime) {
+        int[] counts = new int[numberOfRSUs];
+        int step = trafficLoadGenerator.getStepIndexByTime(stepTime);
+        if (step < 0) {
+            return counts;
+        }
+        for (int task = trafficLoadGenerator.getStepStart(step); task < trafficLoadGenerator.getStepEnd(step); task++) {
+            int vehicleId = trafficLoadGenerator.getTaskVehicleId(task);
+            int rsuId = rsuOrchestrator.findRSUIdInRange(vehicleId, stepTime);
+            if (rsuId != RSUAssociationTable.NOT_IN_RANGE) {
+                counts[rsuId]++;
+            }
+        }
+        return counts;
+    }
+}
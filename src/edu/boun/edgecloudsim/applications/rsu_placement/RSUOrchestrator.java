@@ -2,26 +2,32 @@ package edu.boun.edgecloudsim.applications.rsu_placement;
 
 import edu.boun.edgecloudsim.applications.rsu_placement.model.Coordinate;
 import edu.boun.edgecloudsim.applications.rsu_placement.model.RSU;
-import edu.boun.edgecloudsim.applications.rsu_placement.utils.CoordinateUtils;
-import edu.boun.edgecloudsim.core.SimManager;
+import edu.boun.edgecloudsim.applications.rsu_placement.utils.LocalProjection;
+import edu.boun.edgecloudsim.core.SimContext;
 import edu.boun.edgecloudsim.core.SimSettings;
 import edu.boun.edgecloudsim.edge_client.Task;
 import edu.boun.edgecloudsim.edge_orchestrator.EdgeOrchestrator;
+import edu.boun.edgecloudsim.edge_server.EdgeServerManager;
 import edu.boun.edgecloudsim.edge_server.EdgeVM;
-import edu.boun.edgecloudsim.utils.SimLogger;
-import edu.wlu.cs.levy.CG.KDTree;
-import edu.wlu.cs.levy.CG.KeyDuplicateException;
-import edu.wlu.cs.levy.CG.KeySizeException;
 import org.cloudbus.cloudsim.Datacenter;
 import org.cloudbus.cloudsim.core.SimEvent;
 
+import java.util.ArrayList;
+import java.util.List;
+
 
 public class RSUOrchestrator extends EdgeOrchestrator {
 
-    private KDTree<RSU> rsuRadar = new KDTree<RSU>(2);
+    private SimContext simContext;
+    private RSUGridIndex rsuRadar;
+    private RSU[] rsuList; //<rsu id, rsu>
+    private TrafficTrace trafficTrace;
+    private RSUAssociationTable associationTable;
 
-    public RSUOrchestrator() {
+    public RSUOrchestrator(SimContext simContext, TrafficTrace trafficTrace) {
         super();
+        this.simContext = simContext;
+        this.trafficTrace = trafficTrace;
     }
 
     @Override
@@ -36,42 +42,45 @@ public class RSUOrchestrator extends EdgeOrchestrator {
     @Override
     public EdgeVM getVmToOffload(Task task, int deviceId) {
         //TODO multiple task assignments at each timestep causes capacity overload, is it ok?
-        RSU rsu = findRSUInRangeByCoordinate(task.getCoordinate());
-        if(rsu == null){
+        int rsuId = findRSUIdInRange(task.getMobileDeviceId(), task.getCreationTime());
+        if(rsuId == RSUAssociationTable.NOT_IN_RANGE){
             return null;
         }
-        return SimManager.getInstance().getEdgeServerManager().getVmList(rsu.getId()).get(0);
+        return simContext.getSimManager().getEdgeServerManager().getVmList(rsuId).get(0);
+    }
+
+    //id of the RSU serving the vehicle at the given time, RSUAssociationTable.NOT_IN_RANGE if there is no such RSU
+    public int findRSUIdInRange(int vehicleId, double time){
+        return associationTable.getServingRSUId(vehicleId, time);
+    }
+
+    public RSU findRSUInRange(int vehicleId, double time){
+        int rsuId = findRSUIdInRange(vehicleId, time);
+        return rsuId == RSUAssociationTable.NOT_IN_RANGE ? null : rsuList[rsuId];
     }
 
     public RSU findRSUInRangeByCoordinate(Coordinate coordinate){
-        double[] position = {CoordinateUtils.lon2x(coordinate.getLng()), CoordinateUtils.lat2y(coordinate.getLat())};
-        RSU rsu = null;
-        try {
-            rsu = rsuRadar.nearest(position);
-        } catch (Exception e) {
-            SimLogger.printLine("Problem encountered while finding nearest RSU");
-            System.exit(0);
-        }
-        //car should be in the range of nearest RSU
-        double distance = CoordinateUtils.calculateDistance(coordinate, rsu.getCoordinate());
-        if(distance > SimSettings.getInstance().getWlanRange()){
-            return null;
-        }
-        return rsu;
+        return findRSUInRangeByCoordinate(coordinate.getLat(), coordinate.getLng());
+    }
+
+    //car should be in the range of nearest RSU
+    public RSU findRSUInRangeByCoordinate(double lat, double lng){
+        return rsuRadar.findRSUInRange(lat, lng);
     }
 
     @Override
     public void startEntity() {
-        for(Datacenter dc : SimManager.getInstance().getEdgeServerManager().getDatacenterList()){
+        List<RSU> rsus = new ArrayList<>();
+        EdgeServerManager edgeServerManager = simContext.getSimManager().getEdgeServerManager();
+        rsuList = new RSU[edgeServerManager.getDatacenterList().size()];
+        for(Datacenter dc : edgeServerManager.getDatacenterList()){
             RSU rsu = (RSU)dc.getHostList().get(0);
-            double[] rsuPosition = {CoordinateUtils.lon2x(rsu.getCoordinate().getLng()), CoordinateUtils.lat2y(rsu.getCoordinate().getLat())};
-            try {
-                rsuRadar.insert(rsuPosition, rsu);
-            } catch (KeySizeException |  KeyDuplicateException e) {
-                SimLogger.printLine("Problem encountered while saving RSU positions");
-                System.exit(0);
-            }
+            rsuList[rsu.getId()] = rsu;
+            rsus.add(rsu);
         }
+        SimSettings SS = simContext.getSettings();
+        rsuRadar = new RSUGridIndex(rsus, SS.getWlanRange(), LocalProjection.forSimulationArea(SS));
+        associationTable = new RSUAssociationTable(trafficTrace, this);
     }
 
     @Override
@@ -0,0 +1,76 @@
+package edu.boun.edgecloudsim.applications.rsu_placement;
+
+import edu.boun.edgecloudsim.applications.rsu_placement.model.Coordinate;
+import edu.boun.edgecloudsim.utils.Location;
+
+import java.io.File;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+/**
+ * Child-first class loader of a {@link BatchApp} worker. CloudSim keeps its simulation kernel,
+ * and EdgeCloudSim its settings, logger and simulation manager, in static fields, so every
+ * worker defines its own copy of the simulator and of this application from the class path and
+ * the simulations of different workers share no static state.
+ *
+ * Only {@link TrafficTrace} and the location classes in its methods come from the parent
+ * loader, so a trace loaded by BatchApp can be passed to the simulations of every worker.
+ */
+class ScenarioClassLoader extends URLClassLoader {
+
+    private static final String[] SHARED_CLASSES = {
+            TrafficTrace.class.getName(), Coordinate.class.getName(), Location.class.getName()
+    };
+
+    ScenarioClassLoader(ClassLoader parent) {
+        super(getClassPath(), parent);
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        synchronized (getClassLoadingLock(name)) {
+            Class<?> loadedClass = findLoadedClass(name);
+            if (loadedClass == null && !isShared(name)) {
+                try {
+                    loadedClass = findClass(name);
+                } catch (ClassNotFoundException e) {
+                    //not on the class path, e.g. a class of the JDK
+                }
+            }
+            if (loadedClass == null) {
+                loadedClass = getParent().loadClass(name);
+            }
+            if (resolve) {
+                resolveClass(loadedClass);
+            }
+            return loadedClass;
+        }
+    }
+
+    private static boolean isShared(String name) {
+        if (name.startsWith("java.")) {
+            return true;
+        }
+        for (String sharedClass : SHARED_CLASSES) {
+            if (name.equals(sharedClass) || name.startsWith(sharedClass + "$")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static URL[] getClassPath() {
+        String[] entries = System.getProperty("java.class.path").split(File.pathSeparator);
+        URL[] urls = new URL[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            try {
+                urls[i] = new File(entries[i]).toURI().toURL();
+            } catch (MalformedURLException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return urls;
+    }
+}
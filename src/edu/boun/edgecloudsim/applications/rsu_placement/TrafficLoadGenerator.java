@@ -1,79 +1,173 @@
 package edu.boun.edgecloudsim.applications.rsu_placement;
 
-import edu.boun.edgecloudsim.applications.rsu_placement.utils.FileUtils;
+import edu.boun.edgecloudsim.core.SimContext;
 import edu.boun.edgecloudsim.core.SimSettings;
 import edu.boun.edgecloudsim.task_generator.LoadGeneratorModel;
-import edu.boun.edgecloudsim.utils.SimLogger;
+import edu.boun.edgecloudsim.utils.SimUtils;
 import edu.boun.edgecloudsim.utils.TaskProperty;
-import org.apache.commons.math3.distribution.ExponentialDistribution;
-import org.w3c.dom.Element;
-import org.w3c.dom.NodeList;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.TreeMap;
+import java.util.SplittableRandom;
 
+/**
+ * Generates a task for every vehicle sample of the trace which is in the simulation area.
+ * Only the timesteps and the vehicle ids of the tasks are kept, in a CSR style layout like
+ * {@link TrafficTrace}. The sizes and the length of a task are sampled when the task is
+ * requested by the simulation manager. Random streams form a hierarchy: the seed of the run
+ * gives a stream to each vehicle, which is split into a stream for each task attribute, so a
+ * vehicle gets the same tasks regardless of the other vehicles and the task scheduling window.
+ */
 public class TrafficLoadGenerator extends LoadGeneratorModel {
 
-    private String inputFile;
-    private TreeMap<Double, List<Integer>> timeVehicleMap;
+    private static final int INPUT_SIZE = 0;
+    private static final int OUTPUT_SIZE = 1;
+    private static final int LENGTH = 2;
+    private static final int ATTRIBUTE_COUNT = 3;
 
-    public TrafficLoadGenerator(String trafficScenarioFile) {
+    private SimContext simContext;
+    private TrafficTrace trafficTrace;
+
+    //timesteps: vehicles of the tasks of step i are in [stepOffsets[i], stepOffsets[i+1])
+    private double[] stepTimes;
+    private int[] stepOffsets;
+    private int[] taskVehicleIds;
+    private int nextStep;
+
+    //means of the exponentially distributed input size, output size and length of the tasks
+    private double meanInputSize, meanOutputSize, meanLength;
+    private int pesNumber;
+    private long runSeed;
+    private SplittableRandom[][] vehicleRandoms; //<vehicle index in the trace, <task attribute, random stream>>
+
+    public TrafficLoadGenerator(SimContext simContext, TrafficTrace trafficTrace) {
         super();
-        this.inputFile = trafficScenarioFile;
+        this.simContext = simContext;
+        this.trafficTrace = trafficTrace;
     }
 
     @Override
     public void initializeModel() {
         int numberOfSkippedTasks = 0;
-        taskList = new ArrayList<>();
-        timeVehicleMap = new TreeMap<>();
-        //exponential number generator for file input size, file output size and task length
-        ExponentialDistribution[] expRngList = new ExponentialDistribution[3];
-        expRngList[0] = new ExponentialDistribution(SimSettings.getInstance().getTaskLookUpTable()[0][5]);
-        expRngList[1] = new ExponentialDistribution(SimSettings.getInstance().getTaskLookUpTable()[0][6]);
-        expRngList[2] = new ExponentialDistribution(SimSettings.getInstance().getTaskLookUpTable()[0][7]);
-        Double northernBound = SimSettings.getInstance().getNorthernBound();
-        Double southernBound = SimSettings.getInstance().getSouthernBound();
-        Double westernBound = SimSettings.getInstance().getWesternBound();
-        Double easternBound = SimSettings.getInstance().getEasternBound();
-        try {
-            NodeList timeStepNodeList = FileUtils.readTimeStepListFromTrafficData(inputFile);
-            for (int i = 0; i < timeStepNodeList.getLength(); i++) {
-                Element timeStep = (Element) timeStepNodeList.item(i);
-                Double time = Double.parseDouble(timeStep.getAttribute("time"));
-                if(time < SimSettings.getInstance().getWarmUpPeriod()){
+        SimSettings SS = simContext.getSettings();
+        meanInputSize = SS.getTaskLookUpTable()[0][5];
+        meanOutputSize = SS.getTaskLookUpTable()[0][6];
+        meanLength = SS.getTaskLookUpTable()[0][7];
+        pesNumber = (int) SS.getTaskLookUpTable()[0][8];
+        runSeed = SS.getRunSeed();
+        double northernBound = SS.getNorthernBound();
+        double southernBound = SS.getSouthernBound();
+        double westernBound = SS.getWesternBound();
+        double easternBound = SS.getEasternBound();
+
+        trafficTrace.load();
+        vehicleRandoms = new SplittableRandom[trafficTrace.getVehicleCount()][];
+        stepTimes = new double[trafficTrace.getTimeStepCount()];
+        stepOffsets = new int[trafficTrace.getTimeStepCount() + 1];
+        taskVehicleIds = new int[trafficTrace.getSampleCount()];
+        int stepCount = 0;
+        int taskCount = 0;
+        for (int step = 0; step < trafficTrace.getTimeStepCount(); step++) {
+            double time = trafficTrace.getTimeStepTime(step);
+            if(time < SS.getWarmUpPeriod()){
+                continue;
+            }
+            stepTimes[stepCount] = time;
+            stepOffsets[stepCount] = taskCount;
+            for (int sample = trafficTrace.getTimeStepStart(step); sample < trafficTrace.getTimeStepEnd(step); sample++) {
+                double lat = trafficTrace.getSampleLat(sample);
+                double lng = trafficTrace.getSampleLng(sample);
+                if(lat > northernBound || lat < southernBound || lng > easternBound || lng < westernBound){
+                    numberOfSkippedTasks++;
                     continue;
                 }
-                NodeList vehicleNodeList = timeStep.getElementsByTagName("vehicle");
-                List<Integer> vehicleIdList = new ArrayList<>();
-                for (int j = 0; j < vehicleNodeList.getLength(); j++) {
-                    Element vehicle = (Element) vehicleNodeList.item(j);
-                    Double lat = Double.parseDouble(vehicle.getAttribute("y"));
-                    Double lng = Double.parseDouble(vehicle.getAttribute("x"));
-                    if(lat > northernBound || lat < southernBound || lng > easternBound || lng < westernBound){
-                        numberOfSkippedTasks++;
-                        continue;
-                    }
-
-                    Integer vehicleId = Integer.parseInt(vehicle.getAttribute("id"));
-                    taskList.add(new TaskProperty(vehicleId, time, expRngList));
-//                    coordinates.add(new TaskProperty(vehicleId, time, SimSettings.getInstance().getTaskLookUpTable()[0][5],
-//                            SimSettings.getInstance().getTaskLookUpTable()[0][6], SimSettings.getInstance().getTaskLookUpTable()[0][7]));
-                    vehicleIdList.add(vehicleId);
-                }
-                timeVehicleMap.put(time, vehicleIdList);
+                taskVehicleIds[taskCount++] = trafficTrace.getSampleVehicleId(sample);
             }
-            SimLogger.getInstance().setNumberOfSkippedTasks(numberOfSkippedTasks);
-        } catch (Exception e) {
-            SimLogger.printLine("Traffic input file cannot be parsed! Terminating simulation...");
-            e.printStackTrace();
-            System.exit(0);
+            stepCount++;
         }
+        stepOffsets[stepCount] = taskCount;
+        stepTimes = Arrays.copyOf(stepTimes, stepCount);
+        stepOffsets = Arrays.copyOf(stepOffsets, stepCount + 1);
+        taskVehicleIds = Arrays.copyOf(taskVehicleIds, taskCount);
+        nextStep = 0;
+        simContext.getLogger().setNumberOfSkippedTasks(numberOfSkippedTasks);
+    }
+
+    //tasks are created step by step, the sizes are sampled at this point
+    @Override
+    public List<TaskProperty> getNextTasks(double endTime) {
+        List<TaskProperty> tasks = new ArrayList<>();
+        while (nextStep < stepTimes.length && stepTimes[nextStep] < endTime) {
+            for (int i = stepOffsets[nextStep]; i < stepOffsets[nextStep + 1]; i++) {
+                tasks.add(createTask(taskVehicleIds[i], stepTimes[nextStep]));
+            }
+            nextStep++;
+        }
+        return tasks;
+    }
+
+    @Override
+    public boolean hasNextTask() {
+        return nextStep < stepTimes.length;
+    }
+
+    private TaskProperty createTask(int vehicleId, double time) {
+        SplittableRandom[] randoms = getVehicleRandoms(vehicleId);
+        long inputFileSize = sampleExponential(randoms[INPUT_SIZE], meanInputSize);
+        long outputFileSize = sampleExponential(randoms[OUTPUT_SIZE], meanOutputSize);
+        long length = sampleExponential(randoms[LENGTH], meanLength);
+        return new TaskProperty(vehicleId, time, inputFileSize, outputFileSize, length, pesNumber);
+    }
+
+    private SplittableRandom[] getVehicleRandoms(int vehicleId) {
+        int vehicle = trafficTrace.getVehicleIndex(vehicleId);
+        if (vehicleRandoms[vehicle] == null) {
+            //streams of a vehicle depend only on the seed of the run and the vehicle id
+            SplittableRandom vehicleRandom = new SplittableRandom(SimUtils.deriveSeed(runSeed, vehicleId));
+            vehicleRandoms[vehicle] = new SplittableRandom[ATTRIBUTE_COUNT];
+            for (int attribute = 0; attribute < ATTRIBUTE_COUNT; attribute++) {
+                vehicleRandoms[vehicle][attribute] = vehicleRandom.split();
+            }
+        }
+        return vehicleRandoms[vehicle];
+    }
+
+    //inverse of the exponential cumulative distribution function
+    private static long sampleExponential(SplittableRandom random, double mean) {
+        return (long) (-mean * Math.log(1 - random.nextDouble()));
+    }
+
+    //index of the latest timestep which is not after the given time, -1 if there is no such timestep
+    public int getStepIndexByTime(double time) {
+        int index = Arrays.binarySearch(stepTimes, time);
+        if (index >= 0) {
+            return index;
+        }
+        return -index - 2;
+    }
+
+    public int getStepStart(int step) {
+        return stepOffsets[step];
+    }
+
+    public int getStepEnd(int step) {
+        return stepOffsets[step + 1];
+    }
+
+    public int getTaskVehicleId(int task) {
+        return taskVehicleIds[task];
     }
 
     public List<Integer> getVehicleIdListByTime(double time){
-        return timeVehicleMap.floorEntry(time).getValue();
+        List<Integer> vehicleIdList = new ArrayList<>();
+        int step = getStepIndexByTime(time);
+        if (step >= 0) {
+            for (int i = getStepStart(step); i < getStepEnd(step); i++) {
+                vehicleIdList.add(taskVehicleIds[i]);
+            }
+        }
+        return vehicleIdList;
     }
 
     @Override
@@ -12,6 +12,7 @@ package edu.boun.edgecloudsim.applications.rsu_placement;
 
 import edu.boun.edgecloudsim.cloud_server.CloudServerManager;
 import edu.boun.edgecloudsim.core.ScenarioFactory;
+import edu.boun.edgecloudsim.core.SimContext;
 import edu.boun.edgecloudsim.edge_client.MobileDeviceManager;
 import edu.boun.edgecloudsim.edge_client.mobile_processing_unit.MobileServerManager;
 import edu.boun.edgecloudsim.edge_orchestrator.EdgeOrchestrator;
@@ -22,42 +23,55 @@ import edu.boun.edgecloudsim.network.NetworkModel;
 import edu.boun.edgecloudsim.task_generator.LoadGeneratorModel;
 
 public class TrafficScenarioFactory implements ScenarioFactory {
+    private SimContext simContext;
     private int numOfMobileDevice;
-    private String trafficScenarioFile;
+    private TrafficTrace trafficTrace;
 
     TrafficScenarioFactory(int numOfMobileDevice, String trafficScenarioFile) {
+        //load generator and mobility model share the same trace, so the file is parsed once
+        this(SimContext.global(), numOfMobileDevice, new TrafficTrace(trafficScenarioFile));
+    }
+
+    //a loaded trace can be shared by the scenarios of a batch, see BatchApp
+    TrafficScenarioFactory(SimContext simContext, int numOfMobileDevice, TrafficTrace trafficTrace) {
+        this.simContext = simContext;
         this.numOfMobileDevice = numOfMobileDevice;
-        this.trafficScenarioFile = trafficScenarioFile;
+        this.trafficTrace = trafficTrace;
+    }
+
+    @Override
+    public SimContext getSimContext() {
+        return simContext;
     }
 
     @Override
     public LoadGeneratorModel getLoadGeneratorModel() {
-        return new TrafficLoadGenerator(trafficScenarioFile);
+        return new TrafficLoadGenerator(simContext, trafficTrace);
     }
 
     @Override
     public MobilityModel getMobilityModel() {
-        return new VehicleMobility(trafficScenarioFile);
+        return new VehicleMobility(trafficTrace);
     }
 
     @Override
     public EdgeOrchestrator getEdgeOrchestrator() {
-        return new RSUOrchestrator();
+        return new RSUOrchestrator(simContext, trafficTrace);
     }
 
     @Override
     public EdgeServerManager getEdgeServerManager() {
-        return new RSUManager();
+        return new RSUManager(simContext);
     }
 
     @Override
     public MobileDeviceManager getMobileDeviceManager() throws Exception {
-        return new TrafficTaskBroker();
+        return new TrafficTaskBroker(simContext);
     }
 
     @Override
     public NetworkModel getNetworkModel() {
-        return new RSUMM1Queue(numOfMobileDevice);
+        return new RSUMM1Queue(numOfMobileDevice, simContext, trafficTrace);
     }
 
     @Override
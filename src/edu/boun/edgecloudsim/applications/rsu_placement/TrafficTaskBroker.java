@@ -17,7 +17,7 @@ package edu.boun.edgecloudsim.applications.rsu_placement;
 
 import edu.boun.edgecloudsim.applications.rsu_placement.model.Coordinate;
 import edu.boun.edgecloudsim.applications.rsu_placement.model.RSU;
-import edu.boun.edgecloudsim.core.SimManager;
+import edu.boun.edgecloudsim.core.SimContext;
 import edu.boun.edgecloudsim.core.SimSettings;
 import edu.boun.edgecloudsim.core.SimSettings.NETWORK_DELAY_TYPES;
 import edu.boun.edgecloudsim.edge_client.CpuUtilizationModel_Custom;
@@ -34,15 +34,22 @@ import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.CloudSimTags;
 import org.cloudbus.cloudsim.core.SimEvent;
 
+import java.util.Arrays;
+import java.util.List;
+
 public class TrafficTaskBroker extends MobileDeviceManager {
 	private static final int BASE = 100000; //start from base in order not to conflict cloudsim tag!
 	private static final int REQUEST_RECEIVED_BY_CLOUD = BASE + 1;
 	private static final int REQUEST_RECIVED_BY_EDGE_DEVICE = BASE + 2;
 	private static final int RESPONSE_RECEIVED_BY_MOBILE_DEVICE = BASE + 3;
 	private int taskIdCounter=0;
-	private long[] capacity = new long[(int) SimSettings.getInstance().getSimulationTime()];
+	private long[] capacity;
+	private SimContext simContext;
+	private double[] stepUploadDelays; //upload delay of each RSU in the current timestep, NaN if not calculated yet
 
-	public TrafficTaskBroker() throws Exception{
+	public TrafficTaskBroker(SimContext simContext) throws Exception{
+		this.simContext = simContext;
+		capacity = new long[(int) simContext.getSettings().getSimulationTime()];
 	}
 
 	@Override
@@ -51,35 +58,64 @@ public class TrafficTaskBroker extends MobileDeviceManager {
 	}
 
 	public void submitTask(TaskProperty edgeTask) {
-		NetworkModel networkModel = SimManager.getInstance().getNetworkModel();
+		submitTask(edgeTask,
+				simContext.getSimManager().getNetworkModel(),
+				simContext.getSimManager().getMobilityModel(),
+				(RSUOrchestrator) simContext.getSimManager().getEdgeOrchestrator(),
+				null);
+	}
+
+	//tasks of a timestep share the model lookups and the upload delay of the vehicles in the range of the same RSU
+	@Override
+	public void submitTasks(List<TaskProperty> edgeTasks) {
+		if(stepUploadDelays == null)
+			stepUploadDelays = new double[simContext.getSimManager().getEdgeServerManager().getDatacenterList().size()];
+		Arrays.fill(stepUploadDelays, Double.NaN);
+
+		NetworkModel networkModel = simContext.getSimManager().getNetworkModel();
+		MobilityModel mobilityModel = simContext.getSimManager().getMobilityModel();
+		RSUOrchestrator rsuOrchestrator = (RSUOrchestrator) simContext.getSimManager().getEdgeOrchestrator();
+		for(TaskProperty edgeTask : edgeTasks)
+			submitTask(edgeTask, networkModel, mobilityModel, rsuOrchestrator, stepUploadDelays);
+	}
 
+	private void submitTask(TaskProperty edgeTask, NetworkModel networkModel, MobilityModel mobilityModel,
+			RSUOrchestrator rsuOrchestrator, double[] uploadDelays) {
 		Task task = createTask(edgeTask);
-		Coordinate coordinate = (Coordinate) SimManager.getInstance().getMobilityModel().getLocation(task.getMobileDeviceId(),CloudSim.clock());
+		Coordinate coordinate = (Coordinate) mobilityModel.getLocation(task.getMobileDeviceId(),CloudSim.clock());
 		//set location of the mobile device which generates this task
 		task.setCoordinate(coordinate);
 
 		//add related task to log list
-		SimLogger.getInstance().addLog(task.getCloudletId(),
+		simContext.getLogger().addLog(task.getCloudletId(),
 				task.getTaskType(),
 				(int)task.getCloudletLength(),
 				(int)task.getCloudletFileSize(),
 				(int)task.getCloudletOutputSize());
 
-		RSUOrchestrator rsuOrchestrator = (RSUOrchestrator) SimManager.getInstance().getEdgeOrchestrator();
-		RSU rsu = rsuOrchestrator.findRSUInRangeByCoordinate(coordinate);
+		RSU rsu = rsuOrchestrator.findRSUInRange(task.getMobileDeviceId(), CloudSim.clock());
 		if(rsu == null){
 			//vehicle is not in RSU range
-			SimLogger.getInstance().rejectedDueToNotInNetworkRange(task.getCloudletId(), CloudSim.clock());
+			simContext.getLogger().rejectedDueToNotInNetworkRange(task.getCloudletId(), CloudSim.clock());
 			return;
 		}
-		double wLanDelay = networkModel.getUploadDelay(task.getMobileDeviceId(), SimSettings.GENERIC_EDGE_DEVICE_ID, task);
+		double wLanDelay;
+		if(uploadDelays == null){
+			wLanDelay = networkModel.getUploadDelay(task.getMobileDeviceId(), SimSettings.GENERIC_EDGE_DEVICE_ID, task);
+		}
+		else {
+			//upload delay depends only on the number of the vehicles in the range of the RSU at this time
+			if(Double.isNaN(uploadDelays[rsu.getId()]))
+				uploadDelays[rsu.getId()] = networkModel.getUploadDelay(task.getMobileDeviceId(), SimSettings.GENERIC_EDGE_DEVICE_ID, task);
+			wLanDelay = uploadDelays[rsu.getId()];
+		}
 		if(wLanDelay > 0){
 			schedule(getId(), wLanDelay, REQUEST_RECIVED_BY_EDGE_DEVICE, task);
-			SimLogger.getInstance().taskStarted(task.getCloudletId(), CloudSim.clock());
-			SimLogger.getInstance().setUploadDelay(task.getCloudletId(), wLanDelay, NETWORK_DELAY_TYPES.WLAN_DELAY);
+			simContext.getLogger().taskStarted(task.getCloudletId(), CloudSim.clock());
+			simContext.getLogger().setUploadDelay(task.getCloudletId(), wLanDelay, NETWORK_DELAY_TYPES.WLAN_DELAY);
 		}
 		else {
-			SimLogger.getInstance().rejectedDueToBandwidth(
+			simContext.getLogger().rejectedDueToBandwidth(
 					task.getCloudletId(),
 					CloudSim.clock(),
 					SimSettings.VM_TYPES.EDGE_VM.ordinal(),
@@ -89,29 +125,27 @@ public class TrafficTaskBroker extends MobileDeviceManager {
 	}
 
 	protected void processCloudletReturn(SimEvent ev) {
-		NetworkModel networkModel = SimManager.getInstance().getNetworkModel();
+		NetworkModel networkModel = simContext.getSimManager().getNetworkModel();
 		Task task = (Task) ev.getData();
-		SimLogger.getInstance().taskExecuted(task.getCloudletId());
+		simContext.getLogger().taskExecuted(task.getCloudletId());
 
 		double wLanDelay = networkModel.getDownloadDelay(task.getAssociatedHostId(), task.getMobileDeviceId(), task);
 		if(wLanDelay > 0) {
-			MobilityModel trafficMobility = SimManager.getInstance().getMobilityModel();
-			RSUOrchestrator rsuOrchestrator = (RSUOrchestrator) SimManager.getInstance().getEdgeOrchestrator();
-			Coordinate finalCoordinate = (Coordinate) trafficMobility.getLocation(task.getMobileDeviceId(),CloudSim.clock() + wLanDelay);
-			RSU finalRSUVehicleInTheRangeOf = rsuOrchestrator.findRSUInRangeByCoordinate(finalCoordinate);
+			RSUOrchestrator rsuOrchestrator = (RSUOrchestrator) simContext.getSimManager().getEdgeOrchestrator();
+			RSU finalRSUVehicleInTheRangeOf = rsuOrchestrator.findRSUInRange(task.getMobileDeviceId(), CloudSim.clock() + wLanDelay);
 			//if the vehicle is out of the RSU range, task is failed
 			//TODO validate vmid
 			if(finalRSUVehicleInTheRangeOf != null && task.getVmId() == finalRSUVehicleInTheRangeOf.getId()) {
-				networkModel.downloadStarted(finalCoordinate, SimSettings.GENERIC_EDGE_DEVICE_ID);
-				SimLogger.getInstance().setDownloadDelay(task.getCloudletId(), wLanDelay, NETWORK_DELAY_TYPES.WLAN_DELAY);
+				networkModel.downloadStarted(finalRSUVehicleInTheRangeOf.getCoordinate(), SimSettings.GENERIC_EDGE_DEVICE_ID);
+				simContext.getLogger().setDownloadDelay(task.getCloudletId(), wLanDelay, NETWORK_DELAY_TYPES.WLAN_DELAY);
 				schedule(getId(), wLanDelay, RESPONSE_RECEIVED_BY_MOBILE_DEVICE, task);
 			}
 			else {
-				SimLogger.getInstance().failedDueToMobility(task.getCloudletId(), CloudSim.clock());
+				simContext.getLogger().failedDueToMobility(task.getCloudletId(), CloudSim.clock());
 			}
 		}
 		else {
-			SimLogger.getInstance().failedDueToBandwidth(task.getCloudletId(), CloudSim.clock(), NETWORK_DELAY_TYPES.WLAN_DELAY);
+			simContext.getLogger().failedDueToBandwidth(task.getCloudletId(), CloudSim.clock(), NETWORK_DELAY_TYPES.WLAN_DELAY);
 		}
 
 	}
@@ -129,7 +163,7 @@ public class TrafficTaskBroker extends MobileDeviceManager {
 				break;
 			}
 			case RESPONSE_RECEIVED_BY_MOBILE_DEVICE: {
-				SimLogger.getInstance().taskEnded(task.getCloudletId(), CloudSim.clock());
+				simContext.getLogger().taskEnded(task.getCloudletId(), CloudSim.clock());
 				break;
 			}
 			default:
@@ -141,7 +175,7 @@ public class TrafficTaskBroker extends MobileDeviceManager {
 
 	@Override
 	public UtilizationModel getCpuUtilizationModel() {
-		return new CpuUtilizationModel_Custom();
+		return new CpuUtilizationModel_Custom(simContext.getSettings());
 	}
 
 	protected void submitCloudlets() {
@@ -150,12 +184,12 @@ public class TrafficTaskBroker extends MobileDeviceManager {
 
 	private void submitTaskToVm(Task task, double delay, int datacenterId) {
 		//select a VM
-		EdgeVM selectedVM = (EdgeVM)SimManager.getInstance().getEdgeOrchestrator().getVmToOffload(task, datacenterId);
+		EdgeVM selectedVM = (EdgeVM)simContext.getSimManager().getEdgeOrchestrator().getVmToOffload(task, datacenterId);
 		int vmType = SimSettings.VM_TYPES.EDGE_VM.ordinal();
 
 		if(selectedVM != null){
 			if(!hasVMEnoughCapacity(task, selectedVM)){
-				SimLogger.getInstance().rejectedDueToVMCapacity(task.getCloudletId(), selectedVM.getHost().getId(), CloudSim.clock(), vmType);
+				simContext.getLogger().rejectedDueToVMCapacity(task.getCloudletId(), selectedVM.getHost().getId(), CloudSim.clock(), vmType);
 				return;
 			}
 
@@ -174,7 +208,7 @@ public class TrafficTaskBroker extends MobileDeviceManager {
 			schedule(getVmsToDatacentersMap().get(task.getVmId()), delay, CloudSimTags.CLOUDLET_SUBMIT, task);
 
 
-			SimLogger.getInstance().taskAssigned(task.getCloudletId(),
+			simContext.getLogger().taskAssigned(task.getCloudletId(),
 					selectedVM.getHost().getDatacenter().getId(),
 					selectedVM.getHost().getId(),
 					selectedVM.getId(),
@@ -203,6 +237,7 @@ public class TrafficTaskBroker extends MobileDeviceManager {
 
 		//set the owner of this task
 		task.setUserId(this.getId());
+		task.setCreationTime(CloudSim.clock());
 		task.setTaskType(edgeTask.getTaskType());
 
 		if (utilizationModelCPU instanceof CpuUtilizationModel_Custom) {
@@ -0,0 +1,239 @@
+package edu.boun.edgecloudsim.applications.rsu_placement;
+
+import edu.boun.edgecloudsim.applications.rsu_placement.model.Coordinate;
+import edu.boun.edgecloudsim.applications.rsu_placement.utils.BinaryTrafficData;
+import edu.boun.edgecloudsim.applications.rsu_placement.utils.FileUtils;
+import edu.boun.edgecloudsim.applications.rsu_placement.utils.TrafficDataHandler;
+import edu.boun.edgecloudsim.utils.SimLogger;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * Holds the content of a SUMO traffic file. The file is parsed only once, on the first
+ * {@link #load()} call, and the result is shared by {@link TrafficLoadGenerator} and
+ * {@link VehicleMobility} which are created by the same {@link TrafficScenarioFactory}.
+ *
+ * Samples are kept in columns in the order of the trace, so the samples of a timestep are
+ * a contiguous range. The columns of a binary trace are the views of its memory mapping,
+ * the columns of an XML trace are heap arrays. A second, CSR style layout groups the samples by
+ * vehicle; the trajectory of a vehicle is a time sorted range which is searched by
+ * binary search when the location of the vehicle is queried.
+ */
+public class TrafficTrace {
+
+    private String inputFile;
+    private boolean loaded;
+
+    //timesteps: samples of step i are in [stepOffsets[i], stepOffsets[i+1])
+    private DoubleBuffer stepTimes;
+    private int[] stepOffsets;
+
+    //samples in the order of the trace
+    private IntBuffer sampleVehicleIds;
+    private DoubleBuffer sampleLats;
+    private DoubleBuffer sampleLngs;
+
+    //trajectories: samples of vehicleIds[v] are in [vehicleOffsets[v], vehicleOffsets[v+1])
+    private int[] vehicleIds; //sorted
+    private int[] vehicleOffsets;
+    private double[] trajectoryTimes;
+    private int[] trajectorySamples; //index of the related sample
+
+    public TrafficTrace(String inputFile) {
+        this.inputFile = inputFile;
+    }
+
+    public synchronized void load() {
+        if (loaded) {
+            return;
+        }
+        try {
+            if (FileUtils.isBinaryTrafficData(inputFile)) {
+                BinaryTrafficData data = FileUtils.mapTrafficData(inputFile);
+                stepTimes = data.getStepTimes();
+                stepOffsets = data.getStepOffsets();
+                sampleVehicleIds = data.getVehicleIds();
+                sampleLats = data.getLats();
+                sampleLngs = data.getLngs();
+            } else {
+                TraceBuilder builder = new TraceBuilder();
+                FileUtils.readTrafficData(inputFile, builder);
+                builder.build();
+            }
+        } catch (Exception e) {
+            SimLogger.printLine("Traffic input file cannot be parsed! Terminating simulation...");
+            e.printStackTrace();
+            System.exit(0);
+        }
+        buildTrajectories();
+        loaded = true;
+    }
+
+    public String getInputFile() {
+        return inputFile;
+    }
+
+    public int getTimeStepCount() {
+        return stepOffsets.length - 1;
+    }
+
+    public double getTimeStepTime(int step) {
+        return stepTimes.get(step);
+    }
+
+    public int getTimeStepStart(int step) {
+        return stepOffsets[step];
+    }
+
+    public int getTimeStepEnd(int step) {
+        return stepOffsets[step + 1];
+    }
+
+    //index of the latest timestep which is not after the given time, -1 if there is no such timestep
+    public int getTimeStepIndex(double time) {
+        int low = 0;
+        int high = getTimeStepCount() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (stepTimes.get(middle) <= time) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return high;
+    }
+
+    public int getSampleCount() {
+        return sampleVehicleIds.limit();
+    }
+
+    public int getSampleVehicleId(int sample) {
+        return sampleVehicleIds.get(sample);
+    }
+
+    public double getSampleLat(int sample) {
+        return sampleLats.get(sample);
+    }
+
+    public double getSampleLng(int sample) {
+        return sampleLngs.get(sample);
+    }
+
+    public int getVehicleCount() {
+        return vehicleIds.length;
+    }
+
+    //index of the vehicle in [0, getVehicleCount()), negative if the vehicle is not in the trace
+    public int getVehicleIndex(int vehicleId) {
+        return Arrays.binarySearch(vehicleIds, vehicleId);
+    }
+
+    //index of the latest sample of the vehicle which is not after the given time, -1 if there is no such sample
+    public int getSampleIndex(int vehicleId, double time) {
+        int vehicle = Arrays.binarySearch(vehicleIds, vehicleId);
+        if (vehicle < 0) {
+            return -1;
+        }
+        int index = floorIndex(trajectoryTimes, vehicleOffsets[vehicle], vehicleOffsets[vehicle + 1], time);
+        return index < 0 ? -1 : trajectorySamples[index];
+    }
+
+    //location of the vehicle at the latest sample which is not after the given time
+    public Coordinate getLocation(int vehicleId, double time) {
+        int sample = getSampleIndex(vehicleId, time);
+        return sample < 0 ? null : new Coordinate(sampleLats.get(sample), sampleLngs.get(sample));
+    }
+
+    private static int floorIndex(double[] sortedValues, int from, int to, double value) {
+        int index = Arrays.binarySearch(sortedValues, from, to, value);
+        if (index >= 0) {
+            return index;
+        }
+        int insertionPoint = -index - 1;
+        return insertionPoint > from ? insertionPoint - 1 : -1;
+    }
+
+    //sorted vehicle ids and the samples grouped by vehicle
+    private void buildTrajectories() {
+        int stepCount = getTimeStepCount();
+        int sampleCount = getSampleCount();
+        int[] sortedIds = new int[sampleCount];
+        sampleVehicleIds.duplicate().get(sortedIds);
+        Arrays.sort(sortedIds);
+        int vehicleCount = 0;
+        for (int i = 0; i < sortedIds.length; i++) {
+            if (vehicleCount == 0 || sortedIds[i] != sortedIds[vehicleCount - 1]) {
+                sortedIds[vehicleCount++] = sortedIds[i];
+            }
+        }
+        vehicleIds = Arrays.copyOf(sortedIds, vehicleCount);
+
+        //counting sort of the samples by vehicle, the trace is in time order so each trajectory stays sorted
+        vehicleOffsets = new int[vehicleIds.length + 1];
+        int[] sampleVehicles = new int[sampleCount];
+        for (int i = 0; i < sampleCount; i++) {
+            sampleVehicles[i] = Arrays.binarySearch(vehicleIds, sampleVehicleIds.get(i));
+            vehicleOffsets[sampleVehicles[i] + 1]++;
+        }
+        for (int v = 0; v < vehicleIds.length; v++) {
+            vehicleOffsets[v + 1] += vehicleOffsets[v];
+        }
+        int[] next = Arrays.copyOf(vehicleOffsets, vehicleIds.length);
+        trajectoryTimes = new double[sampleCount];
+        trajectorySamples = new int[sampleCount];
+        for (int step = 0; step < stepCount; step++) {
+            double time = stepTimes.get(step);
+            for (int i = stepOffsets[step]; i < stepOffsets[step + 1]; i++) {
+                int position = next[sampleVehicles[i]]++;
+                trajectoryTimes[position] = time;
+                trajectorySamples[position] = i;
+            }
+        }
+    }
+
+    private class TraceBuilder implements TrafficDataHandler {
+        private int stepCount = 0;
+        private int sampleCount = 0;
+        private double[] times = new double[1024];
+        private int[] offsets = new int[1024];
+        private int[] ids = new int[1 << 16];
+        private double[] lats = new double[1 << 16];
+        private double[] lngs = new double[1 << 16];
+
+        @Override
+        public void timeStepStarted(double time) {
+            if (stepCount == times.length) {
+                times = Arrays.copyOf(times, stepCount * 2);
+                offsets = Arrays.copyOf(offsets, stepCount * 2);
+            }
+            times[stepCount] = time;
+            offsets[stepCount] = sampleCount;
+            stepCount++;
+        }
+
+        @Override
+        public void vehicleRead(double time, int vehicleId, double lat, double lng) {
+            if (sampleCount == ids.length) {
+                ids = Arrays.copyOf(ids, sampleCount * 2);
+                lats = Arrays.copyOf(lats, sampleCount * 2);
+                lngs = Arrays.copyOf(lngs, sampleCount * 2);
+            }
+            ids[sampleCount] = vehicleId;
+            lats[sampleCount] = lat;
+            lngs[sampleCount] = lng;
+            sampleCount++;
+        }
+
+        void build() {
+            stepTimes = DoubleBuffer.wrap(Arrays.copyOf(times, stepCount));
+            stepOffsets = Arrays.copyOf(offsets, stepCount + 1);
+            stepOffsets[stepCount] = sampleCount;
+            sampleVehicleIds = IntBuffer.wrap(Arrays.copyOf(ids, sampleCount));
+            sampleLats = DoubleBuffer.wrap(Arrays.copyOf(lats, sampleCount));
+            sampleLngs = DoubleBuffer.wrap(Arrays.copyOf(lngs, sampleCount));
+        }
+    }
+}
@@ -1,60 +1,24 @@
 package edu.boun.edgecloudsim.applications.rsu_placement;
 
 import edu.boun.edgecloudsim.applications.rsu_placement.model.Coordinate;
-import edu.boun.edgecloudsim.applications.rsu_placement.utils.FileUtils;
 import edu.boun.edgecloudsim.mobility.MobilityModel;
-import edu.boun.edgecloudsim.utils.SimLogger;
-import org.w3c.dom.Element;
-import org.w3c.dom.NodeList;
-
-import java.util.HashMap;
-import java.util.TreeMap;
 
 public class VehicleMobility extends MobilityModel {
 
-    private String inputFile;
-    private HashMap<Integer, TreeMap<Double, Coordinate>> vehicleLocations; //<vehicleId, <time, coordinate>>
+    private TrafficTrace trafficTrace;
 
-    public VehicleMobility(String inputFile) {
+    public VehicleMobility(TrafficTrace trafficTrace) {
         super();
-        this.inputFile = inputFile;
+        this.trafficTrace = trafficTrace;
     }
 
     @Override
     public void initialize() {
-        vehicleLocations = new HashMap<>();
-        try {
-            NodeList timeStepNodeList = FileUtils.readTimeStepListFromTrafficData(inputFile);
-            for (int i = 0; i < timeStepNodeList.getLength(); i++) {
-                Element timeStep = (Element) timeStepNodeList.item(i);
-                Double time = Double.parseDouble(timeStep.getAttribute("time"));
-                NodeList vehicleNodeList = timeStep.getElementsByTagName("vehicle");
-                for (int j = 0; j < vehicleNodeList.getLength(); j++) {
-                    Element vehicle = (Element) vehicleNodeList.item(j);
-                    Integer vehicleId = Integer.parseInt(vehicle.getAttribute("id"));
-                    Double lat = Double.parseDouble(vehicle.getAttribute("y"));
-                    Double lng = Double.parseDouble(vehicle.getAttribute("x"));
-                    Coordinate coordinate = new Coordinate(lat, lng);
-                    TreeMap<Double, Coordinate> timeCoordinateMap;
-                    if(vehicleLocations.containsKey(vehicleId)){
-                        timeCoordinateMap = vehicleLocations.get(vehicleId);
-                        timeCoordinateMap.put(time, coordinate);
-                    } else {
-                        timeCoordinateMap = new TreeMap<>();
-                        timeCoordinateMap.put(time, coordinate);
-                        vehicleLocations.put(vehicleId, timeCoordinateMap);
-                    }
-                }
-            }
-        } catch (Exception e) {
-            SimLogger.printLine("Traffic input file cannot be parsed! Terminating simulation...");
-            e.printStackTrace();
-            System.exit(0);
-        }
+        trafficTrace.load();
     }
 
     @Override
     public Coordinate getLocation(int vehicleId, double time) {
-        return vehicleLocations.get(vehicleId).floorEntry(time).getValue();
+        return trafficTrace.getLocation(vehicleId, time);
     }
 }
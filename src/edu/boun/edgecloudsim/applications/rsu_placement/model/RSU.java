@@ -20,6 +20,7 @@ import java.util.List;
 
 public class RSU extends Host {
 	private Coordinate coordinate;
+	private double x, y; //projected position in meters, see LocalProjection
 
 	public RSU(int id, RamProvisioner ramProvisioner,
 			   BwProvisioner bwProvisioner, long storage,
@@ -35,4 +36,17 @@ public class RSU extends Host {
 	public void setCoordinate(Coordinate coordinate) {
 		this.coordinate = coordinate;
 	}
+
+	public double getX() {
+		return x;
+	}
+
+	public double getY() {
+		return y;
+	}
+
+	public void setPosition(double x, double y) {
+		this.x = x;
+		this.y = y;
+	}
 }
@@ -0,0 +1,51 @@
+package edu.boun.edgecloudsim.applications.rsu_placement.placement;
+
+import edu.boun.edgecloudsim.applications.rsu_placement.utils.LocalProjection;
+
+/**
+ * Candidate RSU positions on a uniform grid over the simulation area, in planar meters
+ * of the given projection.
+ */
+public class CandidateSites {
+
+    private final LocalProjection projection;
+    private final double[] x;
+    private final double[] y;
+
+    public CandidateSites(LocalProjection projection, double spacing,
+                          double northernBound, double southernBound, double easternBound, double westernBound) {
+        this.projection = projection;
+        double minX = projection.toX(westernBound);
+        double minY = projection.toY(southernBound);
+        int columns = (int) ((projection.toX(easternBound) - minX) / spacing) + 1;
+        int rows = (int) ((projection.toY(northernBound) - minY) / spacing) + 1;
+        x = new double[columns * rows];
+        y = new double[columns * rows];
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                x[row * columns + column] = minX + column * spacing;
+                y[row * columns + column] = minY + row * spacing;
+            }
+        }
+    }
+
+    public int size() {
+        return x.length;
+    }
+
+    public double getX(int site) {
+        return x[site];
+    }
+
+    public double getY(int site) {
+        return y[site];
+    }
+
+    public double getLat(int site) {
+        return projection.toLat(y[site]);
+    }
+
+    public double getLng(int site) {
+        return projection.toLng(x[site]);
+    }
+}
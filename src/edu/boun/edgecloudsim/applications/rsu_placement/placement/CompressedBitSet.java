@@ -0,0 +1,326 @@
+package edu.boun.edgecloudsim.applications.rsu_placement.placement;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable compressed bitset in the manner of Roaring bitmaps. Values are split by their
+ * high 16 bits into containers, each container keeps its low 16 bits in the smallest of
+ * three forms: a sorted array, a bitmap of 1024 words or a list of runs. Demand points are
+ * numbered in grid order, so the points covered by a site form a few long runs.
+ *
+ * Queries run against dense word arrays (long[]) indexed by value / 64, which is how the
+ * solver keeps the union of the chosen sites: runs and bitmaps are processed a word at a time.
+ */
+public class CompressedBitSet {
+
+    private static final int CONTAINER_BITS = 16;
+    private static final int CONTAINER_SIZE = 1 << CONTAINER_BITS;
+    private static final int BITMAP_WORDS = CONTAINER_SIZE / 64;
+    private static final int MAX_ARRAY_SIZE = 4096; //an array container larger than this is bigger than a bitmap
+
+    private static final byte ARRAY = 0;
+    private static final byte BITMAP = 1;
+    private static final byte RUN = 2;
+
+    private final char[] keys; //high 16 bits of the values of each container
+    private final byte[] types;
+    private final Object[] containers; //char[] for ARRAY, long[] for BITMAP, char[] of (start, length - 1) pairs for RUN
+    private final int cardinality;
+
+    private CompressedBitSet(char[] keys, byte[] types, Object[] containers, int cardinality) {
+        this.keys = keys;
+        this.types = types;
+        this.containers = containers;
+        this.cardinality = cardinality;
+    }
+
+    public int cardinality() {
+        return cardinality;
+    }
+
+    public void forEach(IntConsumer consumer) {
+        for (int c = 0; c < keys.length; c++) {
+            int high = keys[c] << CONTAINER_BITS;
+            switch (types[c]) {
+                case ARRAY:
+                    for (char low : (char[]) containers[c]) {
+                        consumer.accept(high | low);
+                    }
+                    break;
+                case BITMAP:
+                    long[] words = (long[]) containers[c];
+                    for (int w = 0; w < words.length; w++) {
+                        for (long word = words[w]; word != 0; word &= word - 1) {
+                            consumer.accept(high | (w << 6) | Long.numberOfTrailingZeros(word));
+                        }
+                    }
+                    break;
+                default:
+                    char[] runs = (char[]) containers[c];
+                    for (int r = 0; r < runs.length; r += 2) {
+                        for (int v = runs[r]; v <= runs[r] + runs[r + 1]; v++) {
+                            consumer.accept(high | v);
+                        }
+                    }
+                    break;
+            }
+        }
+    }
+
+    //sets the bits of this set in the dense words
+    public void orInto(long[] dense) {
+        for (int c = 0; c < keys.length; c++) {
+            int firstWord = keys[c] * BITMAP_WORDS;
+            switch (types[c]) {
+                case ARRAY:
+                    for (char low : (char[]) containers[c]) {
+                        dense[firstWord + (low >>> 6)] |= 1L << low;
+                    }
+                    break;
+                case BITMAP:
+                    long[] words = (long[]) containers[c];
+                    for (int w = 0; w < words.length && firstWord + w < dense.length; w++) {
+                        dense[firstWord + w] |= words[w];
+                    }
+                    break;
+                default:
+                    char[] runs = (char[]) containers[c];
+                    for (int r = 0; r < runs.length; r += 2) {
+                        int start = runs[r];
+                        int end = start + runs[r + 1]; //inclusive
+                        for (int w = start >>> 6; w <= end >>> 6; w++) {
+                            dense[firstWord + w] |= runMask(w, start, end);
+                        }
+                    }
+                    break;
+            }
+        }
+    }
+
+    //clears the bits of this set in the dense words
+    public void clearFrom(long[] dense) {
+        for (int c = 0; c < keys.length; c++) {
+            int firstWord = keys[c] * BITMAP_WORDS;
+            switch (types[c]) {
+                case ARRAY:
+                    for (char low : (char[]) containers[c]) {
+                        dense[firstWord + (low >>> 6)] &= ~(1L << low);
+                    }
+                    break;
+                case BITMAP:
+                    long[] words = (long[]) containers[c];
+                    for (int w = 0; w < words.length && firstWord + w < dense.length; w++) {
+                        dense[firstWord + w] &= ~words[w];
+                    }
+                    break;
+                default:
+                    char[] runs = (char[]) containers[c];
+                    for (int r = 0; r < runs.length; r += 2) {
+                        int start = runs[r];
+                        int end = start + runs[r + 1];
+                        for (int w = start >>> 6; w <= end >>> 6; w++) {
+                            dense[firstWord + w] &= ~runMask(w, start, end);
+                        }
+                    }
+                    break;
+            }
+        }
+    }
+
+    //number of values which are also in the dense words
+    public int andCardinality(long[] dense) {
+        int count = 0;
+        for (int c = 0; c < keys.length; c++) {
+            int firstWord = keys[c] * BITMAP_WORDS;
+            switch (types[c]) {
+                case ARRAY:
+                    for (char low : (char[]) containers[c]) {
+                        if ((dense[firstWord + (low >>> 6)] & (1L << low)) != 0) {
+                            count++;
+                        }
+                    }
+                    break;
+                case BITMAP:
+                    long[] words = (long[]) containers[c];
+                    for (int w = 0; w < words.length && firstWord + w < dense.length; w++) {
+                        count += Long.bitCount(dense[firstWord + w] & words[w]);
+                    }
+                    break;
+                default:
+                    char[] runs = (char[]) containers[c];
+                    for (int r = 0; r < runs.length; r += 2) {
+                        int start = runs[r];
+                        int end = start + runs[r + 1];
+                        for (int w = start >>> 6; w <= end >>> 6; w++) {
+                            count += Long.bitCount(dense[firstWord + w] & runMask(w, start, end));
+                        }
+                    }
+                    break;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Total weight of the values which are not excluded. A value is excluded if it is in
+     * covered, unless it is in both single and released: this is the gain of a site when the
+     * points covered only by the released site are no longer covered. single and released
+     * can be null, then the weight of the values which are not in covered is returned.
+     */
+    public double andNotWeight(long[] covered, long[] single, long[] released, double[] weights) {
+        double weight = 0;
+        for (int c = 0; c < keys.length; c++) {
+            int high = keys[c] << CONTAINER_BITS;
+            int firstWord = keys[c] * BITMAP_WORDS;
+            switch (types[c]) {
+                case ARRAY:
+                    for (char low : (char[]) containers[c]) {
+                        int word = firstWord + (low >>> 6);
+                        if ((~excluded(covered, single, released, word) & (1L << low)) != 0) {
+                            weight += weights[high | low];
+                        }
+                    }
+                    break;
+                case BITMAP:
+                    long[] words = (long[]) containers[c];
+                    for (int w = 0; w < words.length && firstWord + w < covered.length; w++) {
+                        weight += sumWeights(words[w] & ~excluded(covered, single, released, firstWord + w), high | (w << 6), weights);
+                    }
+                    break;
+                default:
+                    char[] runs = (char[]) containers[c];
+                    for (int r = 0; r < runs.length; r += 2) {
+                        int start = runs[r];
+                        int end = start + runs[r + 1];
+                        for (int w = start >>> 6; w <= end >>> 6; w++) {
+                            long word = runMask(w, start, end) & ~excluded(covered, single, released, firstWord + w);
+                            weight += sumWeights(word, high | (w << 6), weights);
+                        }
+                    }
+                    break;
+            }
+        }
+        return weight;
+    }
+
+    //size of the compressed containers in bytes
+    public long getSizeInBytes() {
+        long size = keys.length * 3L;
+        for (int c = 0; c < keys.length; c++) {
+            size += types[c] == BITMAP ? BITMAP_WORDS * 8L : ((char[]) containers[c]).length * 2L;
+        }
+        return size;
+    }
+
+    private static long excluded(long[] covered, long[] single, long[] released, int word) {
+        if (single == null) {
+            return covered[word];
+        }
+        return covered[word] & ~(single[word] & released[word]);
+    }
+
+    private static double sumWeights(long word, int firstValue, double[] weights) {
+        double weight = 0;
+        for (; word != 0; word &= word - 1) {
+            weight += weights[firstValue + Long.numberOfTrailingZeros(word)];
+        }
+        return weight;
+    }
+
+    //bits of the run [start, end] which fall into the given word of a container
+    private static long runMask(int word, int start, int end) {
+        int from = Math.max(start, word << 6) & 63;
+        int to = Math.min(end, (word << 6) + 63) & 63;
+        return (-1L >>> (63 - to)) & (-1L << from);
+    }
+
+    /**
+     * Collects values in increasing order and picks the smallest form for each container.
+     */
+    public static class Builder {
+        private char[] keys = new char[4];
+        private byte[] types = new byte[4];
+        private Object[] containers = new Object[4];
+        private int containerCount;
+        private int cardinality;
+
+        private int currentKey = -1;
+        private char[] values = new char[64]; //low bits of the current container
+        private int valueCount;
+
+        public Builder add(int value) {
+            int key = value >>> CONTAINER_BITS;
+            if (key != currentKey) {
+                flush();
+                currentKey = key;
+            } else if (valueCount > 0 && (value & 0xFFFF) <= values[valueCount - 1]) {
+                throw new IllegalArgumentException("values should be added in increasing order");
+            }
+            if (valueCount == values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[valueCount++] = (char) value;
+            return this;
+        }
+
+        public CompressedBitSet build() {
+            flush();
+            return new CompressedBitSet(Arrays.copyOf(keys, containerCount), Arrays.copyOf(types, containerCount),
+                    Arrays.copyOf(containers, containerCount), cardinality);
+        }
+
+        private void flush() {
+            if (valueCount == 0) {
+                return;
+            }
+            int runCount = 1;
+            for (int i = 1; i < valueCount; i++) {
+                if (values[i] != values[i - 1] + 1) {
+                    runCount++;
+                }
+            }
+
+            byte type;
+            Object container;
+            if (runCount * 2 <= Math.min(valueCount, MAX_ARRAY_SIZE)) {
+                type = RUN;
+                char[] runs = new char[runCount * 2];
+                int r = 0;
+                runs[0] = values[0];
+                for (int i = 1; i <= valueCount; i++) {
+                    if (i == valueCount || values[i] != values[i - 1] + 1) {
+                        runs[r + 1] = (char) (values[i - 1] - runs[r]);
+                        r += 2;
+                        if (i < valueCount) {
+                            runs[r] = values[i];
+                        }
+                    }
+                }
+                container = runs;
+            } else if (valueCount <= MAX_ARRAY_SIZE) {
+                type = ARRAY;
+                container = Arrays.copyOf(values, valueCount);
+            } else {
+                type = BITMAP;
+                long[] words = new long[BITMAP_WORDS];
+                for (int i = 0; i < valueCount; i++) {
+                    words[values[i] >>> 6] |= 1L << values[i];
+                }
+                container = words;
+            }
+
+            if (containerCount == keys.length) {
+                keys = Arrays.copyOf(keys, containerCount * 2);
+                types = Arrays.copyOf(types, containerCount * 2);
+                containers = Arrays.copyOf(containers, containerCount * 2);
+            }
+            keys[containerCount] = (char) currentKey;
+            types[containerCount] = type;
+            containers[containerCount] = container;
+            containerCount++;
+            cardinality += valueCount;
+            valueCount = 0;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package edu.boun.edgecloudsim.applications.rsu_placement.placement;
+
+import edu.boun.edgecloudsim.applications.rsu_placement.utils.LocalProjection;
+
+import java.util.Arrays;
+
+/**
+ * Demand points in the WLAN range of each candidate site, kept as one compressed bitset per
+ * site. The points are bucketed on a grid whose cell size is the range, so only the 3x3 cells
+ * around a site are checked while the matrix is built.
+ */
+public class CoverageMatrix {
+
+    private final int pointCount;
+    private final CompressedBitSet[] coverages;
+    private final double[] coveredWeights; //total weight of the points covered by each site
+
+    public CoverageMatrix(CandidateSites sites, DemandPoints points, double range) {
+        double rangeSquare = range * range;
+        pointCount = points.size();
+
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE, maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (int p = 0; p < points.size(); p++) {
+            minX = Math.min(minX, points.getX(p));
+            minY = Math.min(minY, points.getY(p));
+            maxX = Math.max(maxX, points.getX(p));
+            maxY = Math.max(maxY, points.getY(p));
+        }
+        int columns = points.size() == 0 ? 1 : (int) ((maxX - minX) / range) + 1;
+        int rows = points.size() == 0 ? 1 : (int) ((maxY - minY) / range) + 1;
+
+        //bucket the points by cell
+        int[] cellOffsets = new int[columns * rows + 1];
+        int[] pointCells = new int[points.size()];
+        for (int p = 0; p < points.size(); p++) {
+            pointCells[p] = (int) ((points.getY(p) - minY) / range) * columns + (int) ((points.getX(p) - minX) / range);
+            cellOffsets[pointCells[p] + 1]++;
+        }
+        for (int c = 0; c < columns * rows; c++) {
+            cellOffsets[c + 1] += cellOffsets[c];
+        }
+        int[] next = Arrays.copyOf(cellOffsets, columns * rows);
+        int[] cellPoints = new int[points.size()];
+        for (int p = 0; p < points.size(); p++) {
+            cellPoints[next[pointCells[p]]++] = p;
+        }
+
+        coverages = new CompressedBitSet[sites.size()];
+        coveredWeights = new double[sites.size()];
+        int[] covered = new int[Math.max(16, points.size())];
+        for (int s = 0; s < sites.size(); s++) {
+            int coveredCount = 0;
+            double siteX = sites.getX(s);
+            double siteY = sites.getY(s);
+            int column = (int) Math.floor((siteX - minX) / range);
+            int row = (int) Math.floor((siteY - minY) / range);
+            for (int r = Math.max(row - 1, 0); r <= Math.min(row + 1, rows - 1); r++) {
+                for (int c = Math.max(column - 1, 0); c <= Math.min(column + 1, columns - 1); c++) {
+                    int cell = r * columns + c;
+                    for (int i = cellOffsets[cell]; i < cellOffsets[cell + 1]; i++) {
+                        int p = cellPoints[i];
+                        if (LocalProjection.distanceSquare(siteX, siteY, points.getX(p), points.getY(p)) <= rangeSquare) {
+                            if (coveredCount == covered.length) {
+                                covered = Arrays.copyOf(covered, covered.length * 2);
+                            }
+                            covered[coveredCount++] = p;
+                            coveredWeights[s] += points.getWeight(p);
+                        }
+                    }
+                }
+            }
+
+            //bitsets are built in increasing order
+            Arrays.sort(covered, 0, coveredCount);
+            CompressedBitSet.Builder builder = new CompressedBitSet.Builder();
+            for (int i = 0; i < coveredCount; i++) {
+                builder.add(covered[i]);
+            }
+            coverages[s] = builder.build();
+        }
+    }
+
+    public int getSiteCount() {
+        return coveredWeights.length;
+    }
+
+    public int getPointCount() {
+        return pointCount;
+    }
+
+    public CompressedBitSet getCoverage(int site) {
+        return coverages[site];
+    }
+
+    //number of words of a dense bitset over the points
+    public int getWordCount() {
+        return (pointCount + 63) >>> 6;
+    }
+
+    public long getSizeInBytes() {
+        long size = 0;
+        for (CompressedBitSet coverage : coverages) {
+            size += coverage.getSizeInBytes();
+        }
+        return size;
+    }
+
+    public double getCoveredWeight(int site) {
+        return coveredWeights[site];
+    }
+}
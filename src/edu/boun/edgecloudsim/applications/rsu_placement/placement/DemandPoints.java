@@ -0,0 +1,96 @@
+package edu.boun.edgecloudsim.applications.rsu_placement.placement;
+
+import edu.boun.edgecloudsim.applications.rsu_placement.TrafficTrace;
+import edu.boun.edgecloudsim.applications.rsu_placement.utils.LocalProjection;
+
+import java.util.Arrays;
+
+/**
+ * Task demand of a trace aggregated on a uniform grid. Every vehicle sample in the simulation
+ * area after the warm up period creates a task, so the weight of a point is the number of
+ * samples in its cell and its position is the mean position of these samples. Positions are
+ * planar meters of the given projection.
+ */
+public class DemandPoints {
+
+    private final double[] x;
+    private final double[] y;
+    private final double[] weights;
+    private final double totalWeight;
+
+    public DemandPoints(TrafficTrace trafficTrace, LocalProjection projection, double warmUpPeriod, double cellSize,
+                        double northernBound, double southernBound, double easternBound, double westernBound) {
+        double minX = projection.toX(westernBound);
+        double minY = projection.toY(southernBound);
+        int columns = (int) Math.ceil((projection.toX(easternBound) - minX) / cellSize) + 1;
+        int rows = (int) Math.ceil((projection.toY(northernBound) - minY) / cellSize) + 1;
+        double[] cellSumX = new double[columns * rows];
+        double[] cellSumY = new double[columns * rows];
+        int[] cellCounts = new int[columns * rows];
+
+        trafficTrace.load();
+        for (int step = 0; step < trafficTrace.getTimeStepCount(); step++) {
+            if (trafficTrace.getTimeStepTime(step) < warmUpPeriod) {
+                continue;
+            }
+            for (int sample = trafficTrace.getTimeStepStart(step); sample < trafficTrace.getTimeStepEnd(step); sample++) {
+                double lat = trafficTrace.getSampleLat(sample);
+                double lng = trafficTrace.getSampleLng(sample);
+                if (lat > northernBound || lat < southernBound || lng > easternBound || lng < westernBound) {
+                    continue;
+                }
+                double sampleX = projection.toX(lng);
+                double sampleY = projection.toY(lat);
+                int cell = (int) ((sampleY - minY) / cellSize) * columns + (int) ((sampleX - minX) / cellSize);
+                cellSumX[cell] += sampleX;
+                cellSumY[cell] += sampleY;
+                cellCounts[cell]++;
+            }
+        }
+
+        int pointCount = 0;
+        for (int count : cellCounts) {
+            if (count > 0) {
+                pointCount++;
+            }
+        }
+        x = new double[pointCount];
+        y = new double[pointCount];
+        weights = new double[pointCount];
+        int point = 0;
+        for (int cell = 0; cell < cellCounts.length; cell++) {
+            if (cellCounts[cell] > 0) {
+                x[point] = cellSumX[cell] / cellCounts[cell];
+                y[point] = cellSumY[cell] / cellCounts[cell];
+                weights[point] = cellCounts[cell];
+                point++;
+            }
+        }
+        totalWeight = Arrays.stream(weights).sum();
+    }
+
+    public int size() {
+        return weights.length;
+    }
+
+    public double getX(int point) {
+        return x[point];
+    }
+
+    public double getY(int point) {
+        return y[point];
+    }
+
+    public double getWeight(int point) {
+        return weights[point];
+    }
+
+    //weights indexed by point, shared with the bitset queries
+    double[] getWeights() {
+        return weights;
+    }
+
+    public double getTotalWeight() {
+        return totalWeight;
+    }
+}
@@ -0,0 +1,359 @@
+package edu.boun.edgecloudsim.applications.rsu_placement.placement;
+
+import edu.boun.edgecloudsim.applications.rsu_placement.utils.LocalProjection;
+
+import java.util.Arrays;
+
+/**
+ * Surrogate evaluation of a placement which is changed one RSU at a time, for local search.
+ * The nearest and second nearest RSU in range of every task is kept, together with the number
+ * of vehicles each RSU serves at each step. Moving, adding or removing an RSU only visits the
+ * tasks in range of its old and new position: tasks and RSUs are bucketed on a grid whose cell
+ * size is the WLAN range. A task which loses its nearest RSU falls back to the second nearest,
+ * only then the RSUs around it are searched. The VMs of the RSUs whose load changed are
+ * followed again with SurrogateEvaluator, the other RSUs keep their results.
+ *
+ * RSU ids are stable: a removed RSU leaves an inactive slot which a later add reuses.
+ * Results equal SurrogateEvaluator.evaluate except for tasks at the same distance to two RSUs.
+ */
+public class IncrementalEvaluator {
+
+    private static final int NONE = -1;
+
+    private final SurrogateEvaluator evaluator;
+    private final LocalProjection projection;
+    private final double range;
+    private final double rangeSquare;
+
+    //tasks, bucketed by cell
+    private final double[] taskX;
+    private final double[] taskY;
+    private final double originX, originY;
+    private final int columns, rows;
+    private final int[] cellOffsets; //tasks of cell c are in [cellOffsets[c], cellOffsets[c+1])
+    private final int[] cellTasks;
+
+    //serving RSUs of each task
+    private final int[] nearest;
+    private final int[] second;
+    private final double[] nearestDistances;
+    private final double[] secondDistances;
+    private int notInRange;
+
+    //RSU slots
+    private int slotCount;
+    private double[] rsuLat, rsuLng, rsuX, rsuY, rsuMips;
+    private int[] rsuCores, rsuCells;
+    private boolean[] active;
+    private int[][] vehicleCounts; //<rsu, <step, vehicle count>>
+    private SurrogateResult[] rsuResults;
+    private final int[][] cellRSUs;
+    private final int[] cellRSUCounts;
+
+    private boolean[] dirty; //load or resources changed since the RSU was last evaluated
+    private int[] dirtyRSUs;
+    private int dirtyCount;
+
+    public IncrementalEvaluator(SurrogateEvaluator evaluator, RSULayout layout) {
+        this.evaluator = evaluator;
+        projection = evaluator.getProjection();
+        range = evaluator.getRange();
+        rangeSquare = range * range;
+
+        int taskCount = evaluator.getTaskCount();
+        taskX = new double[taskCount];
+        taskY = new double[taskCount];
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE, maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (int task = 0; task < taskCount; task++) {
+            taskX[task] = projection.toX(evaluator.getTaskLng(task));
+            taskY[task] = projection.toY(evaluator.getTaskLat(task));
+            minX = Math.min(minX, taskX[task]);
+            minY = Math.min(minY, taskY[task]);
+            maxX = Math.max(maxX, taskX[task]);
+            maxY = Math.max(maxY, taskY[task]);
+        }
+        originX = taskCount == 0 ? 0 : minX;
+        originY = taskCount == 0 ? 0 : minY;
+        columns = taskCount == 0 ? 1 : (int) ((maxX - minX) / range) + 1;
+        rows = taskCount == 0 ? 1 : (int) ((maxY - minY) / range) + 1;
+
+        cellOffsets = new int[columns * rows + 1];
+        int[] taskCells = new int[taskCount];
+        for (int task = 0; task < taskCount; task++) {
+            taskCells[task] = cellOf(taskX[task], taskY[task]);
+            cellOffsets[taskCells[task] + 1]++;
+        }
+        for (int c = 0; c < columns * rows; c++) {
+            cellOffsets[c + 1] += cellOffsets[c];
+        }
+        int[] next = Arrays.copyOf(cellOffsets, columns * rows);
+        cellTasks = new int[taskCount];
+        for (int task = 0; task < taskCount; task++) {
+            cellTasks[next[taskCells[task]]++] = task;
+        }
+
+        nearest = new int[taskCount];
+        second = new int[taskCount];
+        nearestDistances = new double[taskCount];
+        secondDistances = new double[taskCount];
+        Arrays.fill(nearest, NONE);
+        Arrays.fill(second, NONE);
+        Arrays.fill(nearestDistances, Double.MAX_VALUE);
+        Arrays.fill(secondDistances, Double.MAX_VALUE);
+        notInRange = taskCount;
+
+        cellRSUs = new int[columns * rows][];
+        cellRSUCounts = new int[columns * rows];
+        allocateSlots(Math.max(layout.size(), 1));
+        for (int rsu = 0; rsu < layout.size(); rsu++) {
+            addRSU(layout.getLat(rsu), layout.getLng(rsu), layout.getCores(rsu), layout.getMips(rsu));
+        }
+    }
+
+    //id of the new RSU
+    public int addRSU(double lat, double lng, int cores, double mips) {
+        int rsu = 0;
+        while (rsu < slotCount && active[rsu]) {
+            rsu++;
+        }
+        if (rsu == slotCount) {
+            if (slotCount == active.length) {
+                allocateSlots(slotCount * 2);
+            }
+            vehicleCounts[rsu] = new int[evaluator.getStepCount()];
+            slotCount++;
+        }
+        rsuCores[rsu] = cores;
+        rsuMips[rsu] = mips;
+        attach(rsu, lat, lng);
+        return rsu;
+    }
+
+    public void removeRSU(int rsu) {
+        detach(rsu);
+        markDirty(rsu);
+    }
+
+    public void moveRSU(int rsu, double lat, double lng) {
+        detach(rsu);
+        attach(rsu, lat, lng);
+    }
+
+    public void setResources(int rsu, int cores, double mips) {
+        rsuCores[rsu] = cores;
+        rsuMips[rsu] = mips;
+        markDirty(rsu);
+    }
+
+    //predicted outcome of the current placement, the changed RSUs are evaluated again
+    public SurrogateResult getResult() {
+        for (int i = 0; i < dirtyCount; i++) {
+            int rsu = dirtyRSUs[i];
+            rsuResults[rsu] = active[rsu] ? evaluator.evaluateRSU(vehicleCounts[rsu], rsuCores[rsu], rsuMips[rsu]) : null;
+            dirty[rsu] = false;
+        }
+        dirtyCount = 0;
+
+        SurrogateResult result = new SurrogateResult();
+        result.addFailedDueToRange(notInRange);
+        for (int rsu = 0; rsu < slotCount; rsu++) {
+            if (active[rsu]) {
+                result.add(rsuResults[rsu]);
+            }
+        }
+        return result;
+    }
+
+    //active RSUs in the order of their ids
+    public RSULayout getLayout() {
+        int n = getRSUCount();
+        double[] lat = new double[n];
+        double[] lng = new double[n];
+        int[] cores = new int[n];
+        double[] mips = new double[n];
+        for (int rsu = 0, i = 0; rsu < slotCount; rsu++) {
+            if (active[rsu]) {
+                lat[i] = rsuLat[rsu];
+                lng[i] = rsuLng[rsu];
+                cores[i] = rsuCores[rsu];
+                mips[i] = rsuMips[rsu];
+                i++;
+            }
+        }
+        return new RSULayout(lat, lng, cores, mips);
+    }
+
+    public int getRSUCount() {
+        int count = 0;
+        for (int rsu = 0; rsu < slotCount; rsu++) {
+            if (active[rsu]) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    //number of RSU ids, including the inactive ones
+    public int getSlotCount() {
+        return slotCount;
+    }
+
+    public boolean isActive(int rsu) {
+        return rsu < slotCount && active[rsu];
+    }
+
+    public double getLat(int rsu) {
+        return rsuLat[rsu];
+    }
+
+    public double getLng(int rsu) {
+        return rsuLng[rsu];
+    }
+
+    public int getCores(int rsu) {
+        return rsuCores[rsu];
+    }
+
+    public double getMips(int rsu) {
+        return rsuMips[rsu];
+    }
+
+    //places the RSU and takes over the tasks to which it is the nearest RSU in range
+    private void attach(int rsu, double lat, double lng) {
+        rsuLat[rsu] = lat;
+        rsuLng[rsu] = lng;
+        rsuX[rsu] = projection.toX(lng);
+        rsuY[rsu] = projection.toY(lat);
+        rsuCells[rsu] = cellOf(rsuX[rsu], rsuY[rsu]);
+        int cell = rsuCells[rsu];
+        if (cellRSUs[cell] == null || cellRSUCounts[cell] == cellRSUs[cell].length) {
+            cellRSUs[cell] = cellRSUs[cell] == null ? new int[4] : Arrays.copyOf(cellRSUs[cell], cellRSUCounts[cell] * 2);
+        }
+        cellRSUs[cell][cellRSUCounts[cell]++] = rsu;
+        active[rsu] = true;
+        markDirty(rsu);
+
+        int row = cell / columns;
+        int column = cell % columns;
+        for (int r = Math.max(row - 1, 0); r <= Math.min(row + 1, rows - 1); r++) {
+            for (int c = Math.max(column - 1, 0); c <= Math.min(column + 1, columns - 1); c++) {
+                for (int i = cellOffsets[r * columns + c]; i < cellOffsets[r * columns + c + 1]; i++) {
+                    int task = cellTasks[i];
+                    double distance = LocalProjection.distanceSquare(rsuX[rsu], rsuY[rsu], taskX[task], taskY[task]);
+                    if (distance > rangeSquare) {
+                        continue;
+                    }
+                    if (distance < nearestDistances[task]) {
+                        if (nearest[task] == NONE) {
+                            notInRange--;
+                        } else {
+                            changeLoad(nearest[task], task, -1);
+                        }
+                        second[task] = nearest[task];
+                        secondDistances[task] = nearestDistances[task];
+                        nearest[task] = rsu;
+                        nearestDistances[task] = distance;
+                        changeLoad(rsu, task, 1);
+                    } else if (distance < secondDistances[task]) {
+                        second[task] = rsu;
+                        secondDistances[task] = distance;
+                    }
+                }
+            }
+        }
+    }
+
+    //takes the RSU out, its tasks fall back to their second nearest RSU
+    private void detach(int rsu) {
+        int cell = rsuCells[rsu];
+        for (int i = 0; i < cellRSUCounts[cell]; i++) {
+            if (cellRSUs[cell][i] == rsu) {
+                cellRSUs[cell][i] = cellRSUs[cell][--cellRSUCounts[cell]];
+                break;
+            }
+        }
+        active[rsu] = false;
+
+        int row = cell / columns;
+        int column = cell % columns;
+        for (int r = Math.max(row - 1, 0); r <= Math.min(row + 1, rows - 1); r++) {
+            for (int c = Math.max(column - 1, 0); c <= Math.min(column + 1, columns - 1); c++) {
+                for (int i = cellOffsets[r * columns + c]; i < cellOffsets[r * columns + c + 1]; i++) {
+                    int task = cellTasks[i];
+                    if (nearest[task] == rsu) {
+                        changeLoad(rsu, task, -1);
+                        nearest[task] = second[task];
+                        nearestDistances[task] = secondDistances[task];
+                        if (nearest[task] == NONE) {
+                            notInRange++;
+                        } else {
+                            changeLoad(nearest[task], task, 1);
+                        }
+                        findSecond(task);
+                    } else if (second[task] == rsu) {
+                        findSecond(task);
+                    }
+                }
+            }
+        }
+    }
+
+    //second nearest RSU in range of the task, the nearest one is known
+    private void findSecond(int task) {
+        second[task] = NONE;
+        secondDistances[task] = Double.MAX_VALUE;
+        if (nearest[task] == NONE) {
+            return;
+        }
+        int cell = cellOf(taskX[task], taskY[task]);
+        int row = cell / columns;
+        int column = cell % columns;
+        for (int r = Math.max(row - 1, 0); r <= Math.min(row + 1, rows - 1); r++) {
+            for (int c = Math.max(column - 1, 0); c <= Math.min(column + 1, columns - 1); c++) {
+                int[] rsus = cellRSUs[r * columns + c];
+                for (int i = 0; i < cellRSUCounts[r * columns + c]; i++) {
+                    int rsu = rsus[i];
+                    double distance = LocalProjection.distanceSquare(rsuX[rsu], rsuY[rsu], taskX[task], taskY[task]);
+                    if (rsu != nearest[task] && distance <= rangeSquare && distance < secondDistances[task]) {
+                        second[task] = rsu;
+                        secondDistances[task] = distance;
+                    }
+                }
+            }
+        }
+    }
+
+    private void changeLoad(int rsu, int task, int change) {
+        vehicleCounts[rsu][evaluator.getTaskStep(task)] += change;
+        markDirty(rsu);
+    }
+
+    private void markDirty(int rsu) {
+        if (!dirty[rsu]) {
+            dirty[rsu] = true;
+            dirtyRSUs[dirtyCount++] = rsu;
+        }
+    }
+
+    private void allocateSlots(int size) {
+        rsuLat = rsuLat == null ? new double[size] : Arrays.copyOf(rsuLat, size);
+        rsuLng = rsuLng == null ? new double[size] : Arrays.copyOf(rsuLng, size);
+        rsuX = rsuX == null ? new double[size] : Arrays.copyOf(rsuX, size);
+        rsuY = rsuY == null ? new double[size] : Arrays.copyOf(rsuY, size);
+        rsuMips = rsuMips == null ? new double[size] : Arrays.copyOf(rsuMips, size);
+        rsuCores = rsuCores == null ? new int[size] : Arrays.copyOf(rsuCores, size);
+        rsuCells = rsuCells == null ? new int[size] : Arrays.copyOf(rsuCells, size);
+        active = active == null ? new boolean[size] : Arrays.copyOf(active, size);
+        vehicleCounts = vehicleCounts == null ? new int[size][] : Arrays.copyOf(vehicleCounts, size);
+        rsuResults = rsuResults == null ? new SurrogateResult[size] : Arrays.copyOf(rsuResults, size);
+        dirty = dirty == null ? new boolean[size] : Arrays.copyOf(dirty, size);
+        dirtyRSUs = dirtyRSUs == null ? new int[size] : Arrays.copyOf(dirtyRSUs, size);
+    }
+
+    //cell of a position, positions out of the task area are put into the nearest border cell
+    private int cellOf(double x, double y) {
+        int column = Math.max(0, Math.min((int) Math.floor((x - originX) / range), columns - 1));
+        int row = Math.max(0, Math.min((int) Math.floor((y - originY) / range), rows - 1));
+        return row * columns + column;
+    }
+}
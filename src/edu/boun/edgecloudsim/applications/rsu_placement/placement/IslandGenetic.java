@@ -0,0 +1,230 @@
+package edu.boun.edgecloudsim.applications.rsu_placement.placement;
+
+import edu.boun.edgecloudsim.core.SimSettings;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Genetic algorithm with a population on each island. The islands evolve in parallel and the
+ * best layout of every island replaces the worst layout of the next island every few
+ * generations (ring migration). A child takes the RSUs of one parent on one side of a random
+ * line through the simulation area and the RSUs of the other parent on the other side, so
+ * well covered regions are inherited as a whole. The number of RSUs and cores is then repaired
+ * to the budget and the child is mutated with the moves of the annealing search.
+ */
+public class IslandGenetic extends PlacementSearch {
+
+    private static final int POPULATION_SIZE = 16;
+    private static final int TOURNAMENT_SIZE = 3;
+    private static final int MIGRATION_INTERVAL = 10; //generations
+    private static final double JUMP_PROBABILITY = 0.1;
+
+    private final int islandCount;
+    private int generationCount;
+
+    public IslandGenetic(SurrogateEvaluator evaluator, SimSettings SS, int totalCores, ForkJoinPool pool,
+                         Path checkpointFile, int islandCount) {
+        super(evaluator, SS, totalCores, pool, checkpointFile);
+        this.islandCount = Math.max(1, islandCount);
+    }
+
+    @Override
+    protected void run(RSULayout initialLayout, long deadline) throws IOException {
+        List<Island> islands = new ArrayList<>();
+        for (int i = 0; i < islandCount; i++) {
+            islands.add(new Island(initialLayout, createRandom(i)));
+        }
+        generationCount = 0;
+        while (System.currentTimeMillis() < deadline) {
+            invokeAll(islands);
+            generationCount++;
+            if (generationCount % MIGRATION_INTERVAL == 0) {
+                for (int i = 0; i < islandCount; i++) {
+                    Island island = islands.get(i);
+                    int best = island.best();
+                    islands.get((i + 1) % islandCount).replaceWorst(island.layouts[best], island.results[best], island.costs[best]);
+                }
+            }
+            for (Island island : islands) {
+                int best = island.best();
+                offer(island.layouts[best], island.results[best]);
+            }
+        }
+    }
+
+    public int getIslandCount() {
+        return islandCount;
+    }
+
+    //generations evolved on every island in the last search
+    public int getGenerationCount() {
+        return generationCount;
+    }
+
+    private class Island implements Callable<Void> {
+        private final SplittableRandom random;
+        private RSULayout[] layouts = new RSULayout[POPULATION_SIZE];
+        private SurrogateResult[] results = new SurrogateResult[POPULATION_SIZE];
+        private double[] costs = new double[POPULATION_SIZE];
+
+        Island(RSULayout initialLayout, SplittableRandom random) {
+            this.random = random;
+            layouts[0] = initialLayout;
+            results[0] = evaluator.evaluate(initialLayout);
+            costs[0] = cost(results[0]);
+            for (int i = 1; i < POPULATION_SIZE; i++) {
+                layouts[i] = mutate(initialLayout, 0.2);
+                results[i] = evaluator.evaluate(layouts[i]);
+                costs[i] = cost(results[i]);
+            }
+        }
+
+        //one generation, the best layout is kept
+        @Override
+        public Void call() {
+            RSULayout[] nextLayouts = new RSULayout[POPULATION_SIZE];
+            SurrogateResult[] nextResults = new SurrogateResult[POPULATION_SIZE];
+            double[] nextCosts = new double[POPULATION_SIZE];
+            int best = best();
+            nextLayouts[0] = layouts[best];
+            nextResults[0] = results[best];
+            nextCosts[0] = costs[best];
+            for (int i = 1; i < POPULATION_SIZE; i++) {
+                RSULayout child = crossover(layouts[select()], layouts[select()]);
+                nextLayouts[i] = mutate(child, 1d / child.size());
+                nextResults[i] = evaluator.evaluate(nextLayouts[i]);
+                nextCosts[i] = cost(nextResults[i]);
+            }
+            layouts = nextLayouts;
+            results = nextResults;
+            costs = nextCosts;
+            return null;
+        }
+
+        int best() {
+            int best = 0;
+            for (int i = 1; i < POPULATION_SIZE; i++) {
+                if (costs[i] < costs[best]) {
+                    best = i;
+                }
+            }
+            return best;
+        }
+
+        void replaceWorst(RSULayout layout, SurrogateResult result, double cost) {
+            int worst = 0;
+            for (int i = 1; i < POPULATION_SIZE; i++) {
+                if (costs[i] > costs[worst]) {
+                    worst = i;
+                }
+            }
+            layouts[worst] = layout;
+            results[worst] = result;
+            costs[worst] = cost;
+        }
+
+        //tournament selection
+        private int select() {
+            int selected = random.nextInt(POPULATION_SIZE);
+            for (int i = 1; i < TOURNAMENT_SIZE; i++) {
+                int candidate = random.nextInt(POPULATION_SIZE);
+                if (costs[candidate] < costs[selected]) {
+                    selected = candidate;
+                }
+            }
+            return selected;
+        }
+
+        private RSULayout crossover(RSULayout first, RSULayout second) {
+            int n = first.size();
+            //random line through the position of a random RSU
+            double angle = Math.PI * random.nextDouble();
+            int pivot = random.nextInt(n);
+            double pivotX = projection.toX(first.getLng(pivot));
+            double pivotY = projection.toY(first.getLat(pivot));
+            double normalX = Math.cos(angle);
+            double normalY = Math.sin(angle);
+
+            List<double[]> taken = new ArrayList<>(); //lat, lng, cores
+            List<double[]> left = new ArrayList<>();
+            for (int parent = 0; parent < 2; parent++) {
+                RSULayout layout = parent == 0 ? first : second;
+                for (int rsu = 0; rsu < n; rsu++) {
+                    double side = (projection.toX(layout.getLng(rsu)) - pivotX) * normalX
+                            + (projection.toY(layout.getLat(rsu)) - pivotY) * normalY;
+                    double[] gene = {layout.getLat(rsu), layout.getLng(rsu), layout.getCores(rsu)};
+                    ((side >= 0) == (parent == 0) ? taken : left).add(gene);
+                }
+            }
+            while (taken.size() > n) {
+                taken.remove(random.nextInt(taken.size()));
+            }
+            while (taken.size() < n) {
+                taken.add(left.remove(random.nextInt(left.size())));
+            }
+
+            double[] lat = new double[n];
+            double[] lng = new double[n];
+            int[] cores = new int[n];
+            int assignedCores = 0;
+            for (int rsu = 0; rsu < n; rsu++) {
+                lat[rsu] = taken.get(rsu)[0];
+                lng[rsu] = taken.get(rsu)[1];
+                cores[rsu] = (int) taken.get(rsu)[2];
+                assignedCores += cores[rsu];
+            }
+            while (assignedCores > totalCores) {
+                int rsu = random.nextInt(n);
+                if (cores[rsu] > 1) {
+                    cores[rsu]--;
+                    assignedCores--;
+                }
+            }
+            while (assignedCores < totalCores) {
+                cores[random.nextInt(n)]++;
+                assignedCores++;
+            }
+            return createLayout(lat, lng, cores);
+        }
+
+        //moves each RSU and each core with the given probability
+        private RSULayout mutate(RSULayout layout, double probability) {
+            int n = layout.size();
+            double[] lat = new double[n];
+            double[] lng = new double[n];
+            int[] cores = new int[n];
+            for (int rsu = 0; rsu < n; rsu++) {
+                lat[rsu] = layout.getLat(rsu);
+                lng[rsu] = layout.getLng(rsu);
+                cores[rsu] = layout.getCores(rsu);
+            }
+            for (int rsu = 0; rsu < n; rsu++) {
+                if (random.nextDouble() < probability) {
+                    double[] position = random.nextDouble() < JUMP_PROBABILITY
+                            ? demandPosition(random) : nearbyPosition(lat[rsu], lng[rsu], random);
+                    lat[rsu] = position[0];
+                    lng[rsu] = position[1];
+                }
+                if (cores[rsu] > 1 && random.nextDouble() < probability) {
+                    cores[rsu]--;
+                    cores[random.nextInt(n)]++;
+                }
+            }
+            return createLayout(lat, lng, cores);
+        }
+
+        private RSULayout createLayout(double[] lat, double[] lng, int[] cores) {
+            double[] mips = new double[cores.length];
+            for (int rsu = 0; rsu < cores.length; rsu++) {
+                mips[rsu] = getMips(cores[rsu]);
+            }
+            return new RSULayout(lat, lng, cores, mips);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package edu.boun.edgecloudsim.applications.rsu_placement.placement;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * Chooses the sites which cover the largest total demand weight. A lazy greedy pass (CELF)
+ * builds the initial solution: coverage is submodular, so the gain of a site computed in an
+ * earlier round is an upper bound and only the top of the queue is recomputed. A swap local
+ * search then replaces a chosen site by a candidate as long as the coverage improves.
+ * The points covered once and at least once are kept as dense bitsets, so gains are
+ * computed a word at a time from the compressed coverage of a site.
+ */
+public class MaxCoverageSolver {
+
+    private static final double EPSILON = 1e-9;
+
+    private final CoverageMatrix coverage;
+    private final double[] weights;
+    private final int[] coverCounts; //number of chosen sites covering each point
+    private final long[] covered; //points covered by at least one chosen site
+    private final long[] single; //points covered by exactly one chosen site
+    private final boolean[] chosen;
+    private int[] solution;
+    private double coveredWeight;
+
+    public MaxCoverageSolver(CoverageMatrix coverage, DemandPoints points) {
+        this.coverage = coverage;
+        weights = points.getWeights();
+        coverCounts = new int[points.size()];
+        covered = new long[coverage.getWordCount()];
+        single = new long[coverage.getWordCount()];
+        chosen = new boolean[coverage.getSiteCount()];
+    }
+
+    public int[] solve(int numberOfSites, int maxSwapPasses) {
+        lazyGreedy(numberOfSites);
+        swapSearch(maxSwapPasses);
+        return getSolution();
+    }
+
+    public void lazyGreedy(int numberOfSites) {
+        Arrays.fill(coverCounts, 0);
+        Arrays.fill(covered, 0);
+        Arrays.fill(single, 0);
+        Arrays.fill(chosen, false);
+        coveredWeight = 0;
+        numberOfSites = Math.min(numberOfSites, coverage.getSiteCount());
+        solution = new int[numberOfSites];
+
+        double[] gains = new double[coverage.getSiteCount()];
+        int[] rounds = new int[coverage.getSiteCount()]; //round in which the gain is calculated
+        PriorityQueue<Integer> queue = new PriorityQueue<>(Math.max(1, gains.length),
+                (s1, s2) -> Double.compare(gains[s2], gains[s1]));
+        for (int site = 0; site < gains.length; site++) {
+            gains[site] = coverage.getCoveredWeight(site);
+            queue.add(site);
+        }
+
+        for (int round = 0; round < numberOfSites; round++) {
+            while (true) {
+                int site = queue.poll();
+                if (rounds[site] == round) {
+                    add(site);
+                    solution[round] = site;
+                    break;
+                }
+                gains[site] = getGain(site);
+                rounds[site] = round;
+                queue.add(site);
+            }
+        }
+    }
+
+    //first improvement swaps until a pass does not improve or the pass limit is reached
+    public void swapSearch(int maxPasses) {
+        long[] released = new long[coverage.getWordCount()];
+        for (int pass = 0; pass < maxPasses; pass++) {
+            boolean improved = false;
+            for (int i = 0; i < solution.length; i++) {
+                int removed = solution[i];
+                CompressedBitSet removedCoverage = coverage.getCoverage(removed);
+                removedCoverage.orInto(released);
+                //points which are covered only by the removed site
+                double loss = coverage.getCoveredWeight(removed) - removedCoverage.andNotWeight(single, null, null, weights);
+
+                int best = -1;
+                double bestDelta = EPSILON;
+                for (int site = 0; site < chosen.length; site++) {
+                    //the total weight of a site bounds its gain
+                    if (chosen[site] || coverage.getCoveredWeight(site) - loss <= bestDelta) {
+                        continue;
+                    }
+                    double gain = coverage.getCoverage(site).andNotWeight(covered, single, released, weights);
+                    if (gain - loss > bestDelta) {
+                        best = site;
+                        bestDelta = gain - loss;
+                    }
+                }
+
+                removedCoverage.clearFrom(released);
+                if (best >= 0) {
+                    remove(removed);
+                    add(best);
+                    solution[i] = best;
+                    improved = true;
+                }
+            }
+            if (!improved) {
+                break;
+            }
+        }
+    }
+
+    private double getGain(int site) {
+        return coverage.getCoverage(site).andNotWeight(covered, null, null, weights);
+    }
+
+    private void add(int site) {
+        chosen[site] = true;
+        coverage.getCoverage(site).forEach(point -> {
+            int count = ++coverCounts[point];
+            if (count == 1) {
+                coveredWeight += weights[point];
+                covered[point >>> 6] |= 1L << point;
+                single[point >>> 6] |= 1L << point;
+            } else if (count == 2) {
+                single[point >>> 6] &= ~(1L << point);
+            }
+        });
+    }
+
+    private void remove(int site) {
+        chosen[site] = false;
+        coverage.getCoverage(site).forEach(point -> {
+            int count = --coverCounts[point];
+            if (count == 0) {
+                coveredWeight -= weights[point];
+                covered[point >>> 6] &= ~(1L << point);
+                single[point >>> 6] &= ~(1L << point);
+            } else if (count == 1) {
+                single[point >>> 6] |= 1L << point;
+            }
+        });
+    }
+
+    public int[] getSolution() {
+        return Arrays.copyOf(solution, solution.length);
+    }
+
+    public double getCoveredWeight() {
+        return coveredWeight;
+    }
+}
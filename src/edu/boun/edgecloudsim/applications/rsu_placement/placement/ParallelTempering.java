@@ -0,0 +1,159 @@
+package edu.boun.edgecloudsim.applications.rsu_placement.placement;
+
+import edu.boun.edgecloudsim.core.SimSettings;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Simulated annealing chains at a geometric ladder of fixed temperatures (parallel tempering,
+ * replica exchange). A move relocates one RSU near its position or to the position of a random
+ * task, or shifts a core from one RSU to another; it is scored with an IncrementalEvaluator
+ * which every chain owns. The chains run a round of moves in parallel, then the chains at
+ * neighbouring temperatures exchange their layouts with the Metropolis probability, so good
+ * layouts found by the hot chains sink to the cold ones.
+ */
+public class ParallelTempering extends PlacementSearch {
+
+    private static final double MIN_TEMPERATURE = 1e-5;
+    private static final double MAX_TEMPERATURE = 1e-2; //a 1% worse failure ratio is accepted with probability 1/e
+    private static final int MOVES_PER_ROUND = 500;
+    private static final double CORE_MOVE_PROBABILITY = 0.3;
+    private static final double JUMP_PROBABILITY = 0.1;
+
+    private final int chainCount;
+    private long moveCount;
+
+    public ParallelTempering(SurrogateEvaluator evaluator, SimSettings SS, int totalCores, ForkJoinPool pool,
+                             Path checkpointFile, int chainCount) {
+        super(evaluator, SS, totalCores, pool, checkpointFile);
+        this.chainCount = Math.max(2, chainCount);
+    }
+
+    @Override
+    protected void run(RSULayout initialLayout, long deadline) throws IOException {
+        double[] temperatures = new double[chainCount];
+        Chain[] chains = new Chain[chainCount]; //chains[i] runs at temperatures[i]
+        for (int i = 0; i < chainCount; i++) {
+            temperatures[i] = MIN_TEMPERATURE * Math.pow(MAX_TEMPERATURE / MIN_TEMPERATURE, i / (double) (chainCount - 1));
+            chains[i] = new Chain(initialLayout, createRandom(i), temperatures[i]);
+        }
+        offer(initialLayout, chains[0].bestResult);
+        SplittableRandom exchangeRandom = createRandom(chainCount);
+
+        List<Callable<Void>> rounds = new ArrayList<>();
+        for (Chain chain : chains) {
+            rounds.add(chain);
+        }
+        moveCount = 0;
+        while (System.currentTimeMillis() < deadline) {
+            invokeAll(rounds);
+            moveCount += (long) MOVES_PER_ROUND * chainCount;
+
+            for (int i = 0; i + 1 < chainCount; i++) {
+                double exchange = (chains[i].cost - chains[i + 1].cost) * (1 / temperatures[i] - 1 / temperatures[i + 1]);
+                if (exchange >= 0 || exchangeRandom.nextDouble() < Math.exp(exchange)) {
+                    Chain chain = chains[i];
+                    chains[i] = chains[i + 1];
+                    chains[i + 1] = chain;
+                    chains[i].temperature = temperatures[i];
+                    chains[i + 1].temperature = temperatures[i + 1];
+                }
+            }
+            for (Chain chain : chains) {
+                if (chain.bestLayout != null) {
+                    offer(chain.bestLayout, chain.bestResult);
+                    chain.bestLayout = null;
+                }
+            }
+        }
+    }
+
+    public int getChainCount() {
+        return chainCount;
+    }
+
+    //moves made by all chains in the last search
+    public long getMoveCount() {
+        return moveCount;
+    }
+
+    private class Chain implements Callable<Void> {
+        private final IncrementalEvaluator state;
+        private final SplittableRandom random;
+        private double temperature;
+        private double cost;
+        private double bestCost;
+        private SurrogateResult bestResult;
+        private RSULayout bestLayout; //best layout since it was last offered, null if there is no such layout
+
+        Chain(RSULayout layout, SplittableRandom random, double temperature) {
+            this.state = new IncrementalEvaluator(evaluator, layout);
+            this.random = random;
+            this.temperature = temperature;
+            bestResult = state.getResult();
+            cost = cost(bestResult);
+            bestCost = cost;
+        }
+
+        @Override
+        public Void call() {
+            for (int i = 0; i < MOVES_PER_ROUND; i++) {
+                if (random.nextDouble() < CORE_MOVE_PROBABILITY) {
+                    moveCore();
+                } else {
+                    moveRSU();
+                }
+            }
+            return null;
+        }
+
+        private void moveRSU() {
+            int rsu = random.nextInt(state.getSlotCount());
+            double lat = state.getLat(rsu);
+            double lng = state.getLng(rsu);
+            double[] position = random.nextDouble() < JUMP_PROBABILITY ? demandPosition(random) : nearbyPosition(lat, lng, random);
+            state.moveRSU(rsu, position[0], position[1]);
+            if (!accept()) {
+                state.moveRSU(rsu, lat, lng);
+            }
+        }
+
+        private void moveCore() {
+            int from = random.nextInt(state.getSlotCount());
+            int to = random.nextInt(state.getSlotCount());
+            int fromCores = state.getCores(from);
+            int toCores = state.getCores(to);
+            if (from == to || fromCores == 1) {
+                return;
+            }
+            state.setResources(from, fromCores - 1, getMips(fromCores - 1));
+            state.setResources(to, toCores + 1, getMips(toCores + 1));
+            if (!accept()) {
+                state.setResources(from, fromCores, getMips(fromCores));
+                state.setResources(to, toCores, getMips(toCores));
+            }
+        }
+
+        //Metropolis criterion for the changed layout
+        private boolean accept() {
+            SurrogateResult result = state.getResult();
+            double newCost = cost(result);
+            if (newCost > cost && random.nextDouble() >= Math.exp((cost - newCost) / temperature)) {
+                return false;
+            }
+            cost = newCost;
+            if (cost < bestCost) {
+                bestCost = cost;
+                bestResult = result;
+                bestLayout = state.getLayout();
+            }
+            return true;
+        }
+    }
+}
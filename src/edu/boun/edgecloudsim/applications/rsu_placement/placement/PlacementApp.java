@@ -0,0 +1,140 @@
+package edu.boun.edgecloudsim.applications.rsu_placement.placement;
+
+import edu.boun.edgecloudsim.applications.rsu_placement.TrafficTrace;
+import edu.boun.edgecloudsim.applications.rsu_placement.utils.EdgeDevicesWriter;
+import edu.boun.edgecloudsim.applications.rsu_placement.utils.LocalProjection;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * Places RSUs to cover the task demand of a traffic trace and writes them as an edge_devices
+ * XML file. Bounds, WLAN range and warm up period are read from the simulation properties file.
+ * If a total number of cores is given, the cores are shared among the RSUs in proportion to the
+ * demand served by each RSU (a vehicle is served by the nearest RSU in range), every RSU gets at
+ * least one core. Otherwise each RSU gets the host of the uniform placement.
+ *
+ * usage: PlacementApp config.properties traffic_file output.xml number_of_rsus [total_cores] [candidate_spacing] [demand_cell_size]
+ */
+public class PlacementApp {
+
+    private static final int MAX_SWAP_PASSES = 20;
+    private static final double DEFAULT_CANDIDATE_SPACING = 50; //meters
+    private static final double DEFAULT_DEMAND_CELL_SIZE = 25; //meters
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 4) {
+            System.out.println("usage: PlacementApp <config file> <traffic file> <output xml> <number of RSUs> [total number of cores] [candidate spacing] [demand cell size]");
+            System.exit(1);
+        }
+        String configFile = args[0];
+        String trafficFile = args[1];
+        String outputFile = args[2];
+        int numberOfRSUs = Integer.parseInt(args[3]);
+        int totalCores = args.length > 4 ? Integer.parseInt(args[4]) : 0;
+        double candidateSpacing = args.length > 5 ? Double.parseDouble(args[5]) : DEFAULT_CANDIDATE_SPACING;
+        double demandCellSize = args.length > 6 ? Double.parseDouble(args[6]) : DEFAULT_DEMAND_CELL_SIZE;
+
+        Properties prop = new Properties();
+        try (InputStream input = new FileInputStream(configFile)) {
+            prop.load(input);
+        }
+        double northernBound = Double.parseDouble(prop.getProperty("northern_bound"));
+        double southernBound = Double.parseDouble(prop.getProperty("southern_bound"));
+        double easternBound = Double.parseDouble(prop.getProperty("eastern_bound"));
+        double westernBound = Double.parseDouble(prop.getProperty("western_bound"));
+        double warmUpPeriod = Double.parseDouble(prop.getProperty("warm_up_period"));
+        double range = Integer.parseInt(prop.getProperty("wlan_range"));
+
+        long startTime = System.currentTimeMillis();
+        LocalProjection projection = LocalProjection.forBounds(northernBound, southernBound, easternBound, westernBound);
+        DemandPoints points = new DemandPoints(new TrafficTrace(trafficFile), projection, warmUpPeriod, demandCellSize,
+                northernBound, southernBound, easternBound, westernBound);
+        CandidateSites sites = new CandidateSites(projection, candidateSpacing,
+                northernBound, southernBound, easternBound, westernBound);
+        CoverageMatrix coverage = new CoverageMatrix(sites, points, range);
+        System.out.println(points.size() + " demand points, " + sites.size() + " candidate sites, coverage matrix: "
+                + coverage.getSizeInBytes() / 1024 + " KB");
+
+        MaxCoverageSolver solver = new MaxCoverageSolver(coverage, points);
+        solver.lazyGreedy(numberOfRSUs);
+        System.out.println("greedy coverage: " + String.format("%.4f", solver.getCoveredWeight() / points.getTotalWeight()));
+        solver.swapSearch(MAX_SWAP_PASSES);
+        System.out.println("local search coverage: " + String.format("%.4f", solver.getCoveredWeight() / points.getTotalWeight()));
+        int[] solution = solver.getSolution();
+
+        int[] cores = totalCores > 0 ? shareCores(solution, sites, points, coverage, totalCores) : null;
+        try (EdgeDevicesWriter writer = new EdgeDevicesWriter(Paths.get(outputFile))) {
+            for (int i = 0; i < solution.length; i++) {
+                if (cores == null) {
+                    writer.writeRSU(sites.getLat(solution[i]), sites.getLng(solution[i]), 2, 1);
+                } else {
+                    writer.writeRSU(sites.getLat(solution[i]), sites.getLng(solution[i]), cores[i], cores[i]);
+                }
+            }
+        }
+        System.out.println(solution.length + " RSUs are written to " + outputFile + " in "
+                + (System.currentTimeMillis() - startTime) + " ms");
+    }
+
+    //largest remainder shares of the cores which are left after every RSU gets one
+    static int[] shareCores(int[] solution, CandidateSites sites, DemandPoints points, CoverageMatrix coverage, int totalCores) {
+        double[] servedWeights = getServedWeights(solution, sites, points, coverage);
+        double totalServedWeight = 0;
+        for (double weight : servedWeights) {
+            totalServedWeight += weight;
+        }
+
+        int[] cores = new int[solution.length];
+        double[] remainders = new double[solution.length];
+        int spareCores = Math.max(0, totalCores - solution.length);
+        int sharedCores = 0;
+        for (int i = 0; i < solution.length; i++) {
+            double share = totalServedWeight == 0 ? 0 : spareCores * servedWeights[i] / totalServedWeight;
+            cores[i] = 1 + (int) share;
+            remainders[i] = share - (int) share;
+            sharedCores += (int) share;
+        }
+        for (; sharedCores < spareCores; sharedCores++) {
+            int largest = 0;
+            for (int i = 1; i < solution.length; i++) {
+                if (remainders[i] > remainders[largest]) {
+                    largest = i;
+                }
+            }
+            cores[largest]++;
+            remainders[largest] = -1;
+        }
+        return cores;
+    }
+
+    //demand weight served by each RSU, a point is served by the nearest RSU which covers it
+    static double[] getServedWeights(int[] solution, CandidateSites sites, DemandPoints points, CoverageMatrix coverage) {
+        double[] nearestDistances = new double[points.size()];
+        int[] servingRSUs = new int[points.size()];
+        Arrays.fill(nearestDistances, Double.MAX_VALUE);
+        Arrays.fill(servingRSUs, -1);
+        for (int i = 0; i < solution.length; i++) {
+            int site = solution[i];
+            int rsu = i;
+            coverage.getCoverage(site).forEach(point -> {
+                double distance = LocalProjection.distanceSquare(sites.getX(site), sites.getY(site), points.getX(point), points.getY(point));
+                if (distance < nearestDistances[point]) {
+                    nearestDistances[point] = distance;
+                    servingRSUs[point] = rsu;
+                }
+            });
+        }
+        double[] servedWeights = new double[solution.length];
+        for (int point = 0; point < points.size(); point++) {
+            if (servingRSUs[point] >= 0) {
+                servedWeights[servingRSUs[point]] += points.getWeight(point);
+            }
+        }
+        return servedWeights;
+    }
+}
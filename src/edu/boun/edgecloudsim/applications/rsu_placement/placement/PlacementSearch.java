@@ -0,0 +1,198 @@
+package edu.boun.edgecloudsim.applications.rsu_placement.placement;
+
+import edu.boun.edgecloudsim.applications.rsu_placement.utils.EdgeDevicesWriter;
+import edu.boun.edgecloudsim.applications.rsu_placement.utils.LocalProjection;
+import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.utils.SimLogger;
+import edu.boun.edgecloudsim.utils.SimUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Base of the metaheuristic placement searches. A layout keeps the number of RSUs and the
+ * total number of VM cores of the initial layout (the budget), every RSU has at least one
+ * core and the mips of a VM grow with its cores as in EdgeDevicesWriter. Layouts are scored
+ * with the surrogate evaluator, lower cost is better: the failed task ratio plus a small
+ * weight on the average service time, so the delay only decides between layouts which fail
+ * about the same number of tasks.
+ *
+ * The independent parts of a search run on a ForkJoinPool, each with its own random stream
+ * derived from the random seed. The best layout is written as an edge_devices file whenever
+ * it improves, so the search can be stopped at any time. Callers pass the surrogate result
+ * they already have, nothing is evaluated again while the best layout is updated.
+ */
+public abstract class PlacementSearch {
+
+    private static final double SERVICE_TIME_WEIGHT = 0.01; //cost of one second of average service time
+
+    protected final SurrogateEvaluator evaluator;
+    protected final LocalProjection projection;
+    protected final double range;
+    protected final int totalCores;
+    protected final ForkJoinPool pool;
+    private final long seed;
+    private final double minX, minY, maxX, maxY; //simulation area in planar meters
+    private final Path checkpointFile;
+
+    private RSULayout bestLayout;
+    private SurrogateResult bestResult;
+    private double bestCost = Double.MAX_VALUE;
+    private long startTime;
+
+    protected PlacementSearch(SurrogateEvaluator evaluator, SimSettings SS, int totalCores, ForkJoinPool pool, Path checkpointFile) {
+        this.evaluator = evaluator;
+        this.projection = evaluator.getProjection();
+        this.range = evaluator.getRange();
+        this.totalCores = totalCores;
+        this.pool = pool;
+        this.seed = SS.getRandomSeed();
+        this.checkpointFile = checkpointFile;
+        minX = projection.toX(SS.getWesternBound());
+        maxX = projection.toX(SS.getEasternBound());
+        minY = projection.toY(SS.getSouthernBound());
+        maxY = projection.toY(SS.getNorthernBound());
+    }
+
+    //searches until the deadline (System.currentTimeMillis) and returns the best layout found
+    public RSULayout search(RSULayout initialLayout, long deadline) throws IOException {
+        startTime = System.currentTimeMillis();
+        run(withBudget(initialLayout), deadline);
+        return bestLayout;
+    }
+
+    protected abstract void run(RSULayout initialLayout, long deadline) throws IOException;
+
+    public static double cost(SurrogateResult result) {
+        double failedTaskRatio = result.getTaskCount() == 0 ? 0 : (double) result.getFailedTaskCount() / result.getTaskCount();
+        return failedTaskRatio + SERVICE_TIME_WEIGHT * result.getAvgServiceTime();
+    }
+
+    public synchronized RSULayout getBestLayout() {
+        return bestLayout;
+    }
+
+    public synchronized SurrogateResult getBestResult() {
+        return bestResult;
+    }
+
+    public synchronized double getBestCost() {
+        return bestCost;
+    }
+
+    //keeps the layout if it is the best so far, the result is the surrogate result of the layout
+    protected void offer(RSULayout layout, SurrogateResult result) throws IOException {
+        double cost = cost(result);
+        if (!keepBest(layout, cost, result)) {
+            return;
+        }
+        SimLogger.printLine(String.format("%7.1f s  cost %.5f  failed %.2f%% (range %d, capacity %d)  service time %.1f ms",
+                (System.currentTimeMillis() - startTime) / 1000d, cost, result.getFailureRate(),
+                result.getFailedDueToRange(), result.getFailedDueToCapacity(), 1000 * result.getAvgServiceTime()));
+    }
+
+    //records the best layout and writes it to the checkpoint file, false if the layout is not better
+    private synchronized boolean keepBest(RSULayout layout, double cost, SurrogateResult result) throws IOException {
+        if (cost >= bestCost) {
+            return false;
+        }
+        bestCost = cost;
+        bestLayout = layout;
+        bestResult = result;
+        Path tempFile = Paths.get(checkpointFile + ".tmp");
+        try (EdgeDevicesWriter writer = new EdgeDevicesWriter(tempFile)) {
+            for (int rsu = 0; rsu < layout.size(); rsu++) {
+                writer.writeRSU(layout.getLat(rsu), layout.getLng(rsu), layout.getCores(rsu), layout.getCores(rsu));
+            }
+        }
+        Files.move(tempFile, checkpointFile, StandardCopyOption.REPLACE_EXISTING);
+        return true;
+    }
+
+    //runs the tasks on the pool, the search fails on the first exception of a task
+    protected void invokeAll(Collection<? extends Callable<Void>> tasks) {
+        for (Future<Void> future : pool.invokeAll(tasks)) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Placement search is interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Placement search failed", e.getCause());
+            }
+        }
+    }
+
+    //random stream of an independent part of the search
+    protected SplittableRandom createRandom(int part) {
+        return new SplittableRandom(SimUtils.deriveSeed(seed, part));
+    }
+
+    protected double getMips(int cores) {
+        return EdgeDevicesWriter.getVmMips(cores);
+    }
+
+    //position near the given one, in the simulation area
+    protected double[] nearbyPosition(double lat, double lng, SplittableRandom random) {
+        double x = clamp(projection.toX(lng) + gaussian(random) * range, minX, maxX);
+        double y = clamp(projection.toY(lat) + gaussian(random) * range, minY, maxY);
+        return new double[]{projection.toLat(y), projection.toLng(x)};
+    }
+
+    //position of a random task, so jumps go where the demand is
+    protected double[] demandPosition(SplittableRandom random) {
+        int task = random.nextInt(evaluator.getTaskCount());
+        return new double[]{evaluator.getTaskLat(task), evaluator.getTaskLng(task)};
+    }
+
+    //the layout with its cores scaled to the budget, every RSU keeps at least one core
+    private RSULayout withBudget(RSULayout layout) {
+        int n = layout.size();
+        double[] lat = new double[n];
+        double[] lng = new double[n];
+        int[] cores = new int[n];
+        double[] mips = new double[n];
+        int layoutCores = 0;
+        for (int rsu = 0; rsu < n; rsu++) {
+            layoutCores += layout.getCores(rsu);
+        }
+        int assignedCores = 0;
+        for (int rsu = 0; rsu < n; rsu++) {
+            lat[rsu] = layout.getLat(rsu);
+            lng[rsu] = layout.getLng(rsu);
+            cores[rsu] = Math.max(1, (int) ((long) layout.getCores(rsu) * totalCores / layoutCores));
+            assignedCores += cores[rsu];
+        }
+        for (int rsu = 0; assignedCores != totalCores; rsu = (rsu + 1) % n) {
+            if (assignedCores < totalCores) {
+                cores[rsu]++;
+                assignedCores++;
+            } else if (cores[rsu] > 1) {
+                cores[rsu]--;
+                assignedCores--;
+            }
+        }
+        for (int rsu = 0; rsu < n; rsu++) {
+            mips[rsu] = getMips(cores[rsu]);
+        }
+        return new RSULayout(lat, lng, cores, mips);
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        //Box-Muller, SplittableRandom has no nextGaussian before Java 17
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
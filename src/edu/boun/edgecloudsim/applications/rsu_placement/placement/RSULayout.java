@@ -0,0 +1,65 @@
+package edu.boun.edgecloudsim.applications.rsu_placement.placement;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * Positions and edge VM resources of a set of RSUs, the part of an edge_devices file which
+ * the surrogate evaluator needs. Every RSU has one host with a single VM, the VM has the
+ * given number of cores and each core has the given mips, as in CloudSim.
+ */
+public class RSULayout {
+
+    private final double[] lat;
+    private final double[] lng;
+    private final int[] cores;
+    private final double[] mips;
+
+    public RSULayout(double[] lat, double[] lng, int[] cores, double[] mips) {
+        this.lat = lat;
+        this.lng = lng;
+        this.cores = cores;
+        this.mips = mips;
+    }
+
+    //RSUs of an edge_devices document, the first VM of the first host of each datacenter is used
+    public static RSULayout fromEdgeDevices(Document doc) {
+        NodeList datacenterList = doc.getElementsByTagName("datacenter");
+        int n = datacenterList.getLength();
+        double[] lat = new double[n];
+        double[] lng = new double[n];
+        int[] cores = new int[n];
+        double[] mips = new double[n];
+        for (int i = 0; i < n; i++) {
+            Element datacenterElement = (Element) datacenterList.item(i);
+            Element location = (Element) datacenterElement.getElementsByTagName("location").item(0);
+            lng[i] = Double.parseDouble(location.getElementsByTagName("x_pos").item(0).getTextContent());
+            lat[i] = Double.parseDouble(location.getElementsByTagName("y_pos").item(0).getTextContent());
+            Element vmElement = (Element) datacenterElement.getElementsByTagName("VM").item(0);
+            cores[i] = Integer.parseInt(vmElement.getElementsByTagName("core").item(0).getTextContent());
+            mips[i] = Double.parseDouble(vmElement.getElementsByTagName("mips").item(0).getTextContent());
+        }
+        return new RSULayout(lat, lng, cores, mips);
+    }
+
+    public int size() {
+        return lat.length;
+    }
+
+    public double getLat(int rsu) {
+        return lat[rsu];
+    }
+
+    public double getLng(int rsu) {
+        return lng[rsu];
+    }
+
+    public int getCores(int rsu) {
+        return cores[rsu];
+    }
+
+    public double getMips(int rsu) {
+        return mips[rsu];
+    }
+}
@@ -0,0 +1,83 @@
+package edu.boun.edgecloudsim.applications.rsu_placement.placement;
+
+import edu.boun.edgecloudsim.applications.rsu_placement.TrafficTrace;
+import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.utils.SimLogger;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Searches an RSU layout with the budget of an initial edge_devices file: the same number of
+ * RSUs and, unless a total is given, the same number of VM cores. The search starts from the
+ * initial layout, runs for the given time on a ForkJoinPool and keeps the best layout found
+ * so far in the output edge_devices file. The algorithm is parallel tempering simulated
+ * annealing (sa) or a genetic algorithm with islands (ga); the number of chains or islands
+ * defaults to the number of threads.
+ *
+ * usage: SearchApp config.properties initial_edge_devices.xml applications.xml traffic_file output.xml sa|ga seconds [total_cores] [threads]
+ */
+public class SearchApp {
+
+    public static void main(String[] args) throws IOException {
+        SimLogger.enablePrintLog();
+        if (args.length < 7) {
+            SimLogger.printLine("usage: SearchApp <config file> <initial edge devices file> <applications file> <traffic file> <output xml> <sa|ga> <seconds> [total number of cores] [number of threads]");
+            System.exit(1);
+        }
+        SimSettings SS = SimSettings.getInstance();
+        if (!SS.initialize(args[0], args[1], args[2])) {
+            SimLogger.printLine("cannot initialize simulation settings!");
+            System.exit(0);
+        }
+        String algorithm = args[5];
+        long seconds = Long.parseLong(args[6]);
+        RSULayout initialLayout = RSULayout.fromEdgeDevices(SS.getEdgeDevicesDocument());
+        int totalCores = 0;
+        for (int rsu = 0; rsu < initialLayout.size(); rsu++) {
+            totalCores += initialLayout.getCores(rsu);
+        }
+        if (args.length > 7) {
+            totalCores = Integer.parseInt(args[7]);
+        }
+        int threads = args.length > 8 ? Integer.parseInt(args[8]) : Runtime.getRuntime().availableProcessors();
+        if (initialLayout.size() == 0 || totalCores < initialLayout.size()) {
+            SimLogger.printLine("every RSU needs at least one core: " + initialLayout.size() + " RSUs, " + totalCores + " cores");
+            System.exit(0);
+        }
+
+        SurrogateEvaluator evaluator = new SurrogateEvaluator(new TrafficTrace(args[3]), SS);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        PlacementSearch search;
+        ParallelTempering annealing = null;
+        IslandGenetic genetic = null;
+        if (algorithm.equals("sa")) {
+            search = annealing = new ParallelTempering(evaluator, SS, totalCores, pool, Paths.get(args[4]), Math.max(4, threads));
+        } else if (algorithm.equals("ga")) {
+            search = genetic = new IslandGenetic(evaluator, SS, totalCores, pool, Paths.get(args[4]), threads);
+        } else {
+            SimLogger.printLine("unknown algorithm " + algorithm + ", use sa or ga");
+            System.exit(0);
+            return;
+        }
+
+        SimLogger.printLine(initialLayout.size() + " RSUs, " + totalCores + " cores, " + threads + " threads, "
+                + algorithm + " for " + seconds + " s");
+        search.search(initialLayout, System.currentTimeMillis() + seconds * 1000);
+        pool.shutdown();
+        if (annealing != null) {
+            SimLogger.printLine(annealing.getMoveCount() + " moves in " + annealing.getChainCount() + " chains");
+        } else {
+            SimLogger.printLine(genetic.getGenerationCount() + " generations on " + genetic.getIslandCount() + " islands");
+        }
+        SurrogateResult result = search.getBestResult();
+        if (result == null) {
+            SimLogger.printLine("no layout is found in " + seconds + " s");
+            return;
+        }
+        SimLogger.printLine(String.format("best cost %.5f  failed %.2f%%  service time %.1f ms",
+                search.getBestCost(), result.getFailureRate(), 1000 * result.getAvgServiceTime()));
+        SimLogger.printLine("best layout is written to " + args[4]);
+    }
+}
@@ -0,0 +1,69 @@
+package edu.boun.edgecloudsim.applications.rsu_placement.placement;
+
+import edu.boun.edgecloudsim.applications.rsu_placement.TrafficTrace;
+import edu.boun.edgecloudsim.core.SimSettings;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Scores a placement with the surrogate evaluator. If the _GENERIC.log of a simulation run of
+ * the same configuration is given, the predictions are printed next to the simulated values
+ * to validate the surrogate.
+ *
+ * usage: SurrogateApp config.properties edge_devices.xml applications.xml traffic_file [generic_log]
+ */
+public class SurrogateApp {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 4) {
+            System.out.println("usage: SurrogateApp <config file> <edge devices file> <applications file> <traffic file> [simulation generic log]");
+            System.exit(1);
+        }
+        SimSettings SS = SimSettings.getInstance();
+        if (!SS.initialize(args[0], args[1], args[2])) {
+            System.out.println("cannot initialize simulation settings!");
+            System.exit(0);
+        }
+
+        long startTime = System.currentTimeMillis();
+        SurrogateEvaluator evaluator = new SurrogateEvaluator(new TrafficTrace(args[3]), SS);
+        long evaluationStartTime = System.currentTimeMillis();
+        SurrogateResult result = evaluator.evaluate(RSULayout.fromEdgeDevices(SS.getEdgeDevicesDocument()));
+        long endTime = System.currentTimeMillis();
+        System.out.println("trace is loaded in " + (evaluationStartTime - startTime) + " ms, placement is evaluated in "
+                + (endTime - evaluationStartTime) + " ms");
+
+        double[] simulated = args.length > 4 ? readGenericLog(args[4]) : null;
+        System.out.println(String.format("%-28s %12s %12s", "", "surrogate", simulated == null ? "" : "simulation"));
+        print("tasks", result.getTaskCount(), simulated == null ? Double.NaN : simulated[0] + simulated[1] + simulated[2]);
+        print("failed due to range", result.getFailedDueToRange(), simulated == null ? Double.NaN : simulated[11]);
+        print("failed due to capacity", result.getFailedDueToCapacity(), simulated == null ? Double.NaN : simulated[9]);
+        print("failed due to bandwidth", result.getFailedDueToBandwidth(), simulated == null ? Double.NaN : simulated[3]);
+        print("failed due to mobility", Double.NaN, simulated == null ? Double.NaN : simulated[10]);
+        print("failure rate (%)", result.getFailureRate(),
+                simulated == null ? Double.NaN : 100 * simulated[1] / (simulated[0] + simulated[1] + simulated[2]));
+        print("avg service time (ms)", 1000 * result.getAvgServiceTime(), simulated == null ? Double.NaN : 1000 * simulated[4]);
+        print("avg processing time (ms)", 1000 * result.getAvgProcessingTime(), simulated == null ? Double.NaN : 1000 * simulated[5]);
+        print("avg network delay (ms)", 1000 * result.getAvgNetworkDelay(), simulated == null ? Double.NaN : 1000 * simulated[7]);
+    }
+
+    //values of the result line of a _GENERIC.log file
+    private static double[] readGenericLog(String file) throws IOException {
+        List<String> lines = Files.readAllLines(Paths.get(file));
+        String[] fields = lines.get(lines.size() - 1).split(SimSettings.DELIMITER);
+        double[] values = new double[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            values[i] = Double.parseDouble(fields[i]);
+        }
+        return values;
+    }
+
+    private static void print(String name, double surrogate, double simulation) {
+        System.out.println(String.format("%-28s %12s %12s", name,
+                Double.isNaN(surrogate) ? "-" : String.format("%.2f", surrogate),
+                Double.isNaN(simulation) ? "" : String.format("%.2f", simulation)));
+    }
+}
@@ -0,0 +1,207 @@
+package edu.boun.edgecloudsim.applications.rsu_placement.placement;
+
+import edu.boun.edgecloudsim.applications.rsu_placement.RSUGridIndex;
+import edu.boun.edgecloudsim.applications.rsu_placement.RSUMM1Queue;
+import edu.boun.edgecloudsim.applications.rsu_placement.TrafficTrace;
+import edu.boun.edgecloudsim.applications.rsu_placement.utils.LocalProjection;
+import edu.boun.edgecloudsim.core.SimSettings;
+
+import java.util.Arrays;
+
+/**
+ * Predicts the outcome of a simulation run for a placement without running CloudSim. The
+ * tasks are the vehicle samples which the load generator turns into tasks, and the
+ * simulator's assumptions are applied step by step:
+ * - a task is served by the nearest RSU in range (RSUGridIndex), otherwise it fails due to range
+ * - upload and download delays are the M/M/1 delays of RSUMM1Queue for the number of task
+ *   generating vehicles served by the RSU in the step, a rejected upload fails due to bandwidth
+ * - every running task uses vm_utilization_on_edge percent of the VM, a task is admitted while
+ *   the remaining utilization is enough for it, as in TrafficTaskBroker, otherwise it fails
+ *   due to capacity
+ * The running tasks of a VM are a fluid: the remaining work is shared by time shared cores,
+ * so it drains linearly while there are more tasks than cores and exponentially after that,
+ * the number of running tasks is the remaining work over the mean task length. The total
+ * processing time is the integral of the number of running tasks (Little's law), so the tasks
+ * of later steps slow down the tasks which are still running. Failures due to mobility are
+ * not modelled.
+ */
+public class SurrogateEvaluator {
+
+    private final double range;
+    private final LocalProjection projection;
+    private final int wlanBandwidth;
+    private final double poissonMean;
+    private final double avgTaskInputSize;
+    private final double avgTaskOutputSize;
+    private final double avgTaskLength;
+    private final int maxRunningTasks; //per VM, due to vm_utilization_on_edge
+
+    private final double[] stepTimes;
+    private final double[] taskLat;
+    private final double[] taskLng;
+    private final int[] taskSteps;
+
+    public SurrogateEvaluator(TrafficTrace trafficTrace, SimSettings SS) {
+        range = SS.getWlanRange();
+        projection = LocalProjection.forSimulationArea(SS);
+        wlanBandwidth = SS.getWlanBandwidth();
+        poissonMean = SS.getTaskLookUpTable()[0][2];
+        avgTaskInputSize = SS.getTaskLookUpTable()[0][5];
+        avgTaskOutputSize = SS.getTaskLookUpTable()[0][6];
+        avgTaskLength = SS.getTaskLookUpTable()[0][7];
+        double utilization = SS.getTaskLookUpTable()[0][9];
+        maxRunningTasks = utilization > 0 ? (int) (100 / utilization) : Integer.MAX_VALUE;
+
+        //same task set as TrafficLoadGenerator: samples in the bounds after the warm up period
+        trafficTrace.load();
+        double[] times = new double[trafficTrace.getTimeStepCount()];
+        double[] lats = new double[trafficTrace.getSampleCount()];
+        double[] lngs = new double[trafficTrace.getSampleCount()];
+        int[] steps = new int[trafficTrace.getSampleCount()];
+        int stepCount = 0;
+        int taskCount = 0;
+        for (int step = 0; step < trafficTrace.getTimeStepCount(); step++) {
+            double time = trafficTrace.getTimeStepTime(step);
+            if (time < SS.getWarmUpPeriod() || time >= SS.getSimulationTime()) {
+                continue;
+            }
+            times[stepCount] = time;
+            for (int sample = trafficTrace.getTimeStepStart(step); sample < trafficTrace.getTimeStepEnd(step); sample++) {
+                double lat = trafficTrace.getSampleLat(sample);
+                double lng = trafficTrace.getSampleLng(sample);
+                if (lat > SS.getNorthernBound() || lat < SS.getSouthernBound() || lng > SS.getEasternBound() || lng < SS.getWesternBound()) {
+                    continue;
+                }
+                lats[taskCount] = lat;
+                lngs[taskCount] = lng;
+                steps[taskCount] = stepCount;
+                taskCount++;
+            }
+            stepCount++;
+        }
+        stepTimes = Arrays.copyOf(times, stepCount);
+        taskLat = Arrays.copyOf(lats, taskCount);
+        taskLng = Arrays.copyOf(lngs, taskCount);
+        taskSteps = Arrays.copyOf(steps, taskCount);
+    }
+
+    public SurrogateResult evaluate(RSULayout layout) {
+        int n = layout.size();
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = projection.toX(layout.getLng(i));
+            y[i] = projection.toY(layout.getLat(i));
+        }
+        RSUGridIndex gridIndex = new RSUGridIndex(x, y, range, projection);
+
+        SurrogateResult result = new SurrogateResult();
+        int[][] vehicleCounts = new int[n][stepTimes.length]; //<rsu, <step, vehicle count>>
+        int notInRange = 0;
+        for (int task = 0; task < taskLat.length; task++) {
+            int rsu = gridIndex.findIndexInRange(taskLat[task], taskLng[task]);
+            if (rsu < 0) {
+                notInRange++;
+            } else {
+                vehicleCounts[rsu][taskSteps[task]]++;
+            }
+        }
+        result.addFailedDueToRange(notInRange);
+        //RSUs do not share tasks, so each VM is followed on its own
+        for (int rsu = 0; rsu < n; rsu++) {
+            result.add(evaluateRSU(vehicleCounts[rsu], layout.getCores(rsu), layout.getMips(rsu)));
+        }
+        return result;
+    }
+
+    //outcome of the tasks served by one RSU, given the number of vehicles it serves at each step
+    SurrogateResult evaluateRSU(int[] vehicleCounts, int cores, double mips) {
+        SurrogateResult result = new SurrogateResult();
+        double remainingWork = 0; //MI of the running tasks of the VM
+        for (int step = 0; step < stepTimes.length; step++) {
+            if (step > 0) {
+                remainingWork = drain(remainingWork, cores, mips, stepTimes[step] - stepTimes[step - 1], result);
+            }
+            int arrivals = vehicleCounts[step];
+            if (arrivals == 0) {
+                continue;
+            }
+            double uploadDelay = RSUMM1Queue.calculateMM1(0, wlanBandwidth, poissonMean, avgTaskInputSize, arrivals);
+            double downloadDelay = RSUMM1Queue.calculateMM1(0, wlanBandwidth, poissonMean, avgTaskOutputSize, arrivals);
+            if (uploadDelay <= 0 || downloadDelay <= 0) {
+                result.addFailedDueToBandwidth(arrivals);
+                continue;
+            }
+
+            int runningTasks = (int) Math.round(remainingWork / avgTaskLength);
+            int admitted = Math.min(arrivals, Math.max(0, maxRunningTasks - runningTasks));
+            result.addFailedDueToCapacity(arrivals - admitted);
+            if (admitted == 0) {
+                continue;
+            }
+            result.addCompleted(admitted, uploadDelay + downloadDelay);
+            remainingWork += admitted * avgTaskLength;
+        }
+        //tasks which are running at the end are completed
+        drain(remainingWork, cores, mips, Double.POSITIVE_INFINITY, result);
+        return result;
+    }
+
+    public int getTaskCount() {
+        return taskLat.length;
+    }
+
+    public int getStepCount() {
+        return stepTimes.length;
+    }
+
+    public double getTaskLat(int task) {
+        return taskLat[task];
+    }
+
+    public double getTaskLng(int task) {
+        return taskLng[task];
+    }
+
+    public int getTaskStep(int task) {
+        return taskSteps[task];
+    }
+
+    public double getRange() {
+        return range;
+    }
+
+    public LocalProjection getProjection() {
+        return projection;
+    }
+
+    /**
+     * Remaining work of a VM after the given time. The time spent in the VM by its tasks
+     * meanwhile, i.e. the integral of the number of running tasks, is added to the result.
+     */
+    private double drain(double work, int cores, double mips, double time, SurrogateResult result) {
+        if (work <= 0) {
+            return 0;
+        }
+        double workTime = 0; //integral of the remaining work
+        //all cores are busy while there are more running tasks than cores
+        double saturatedWork = cores * avgTaskLength;
+        if (work > saturatedWork) {
+            double saturatedTime = (work - saturatedWork) / (cores * mips);
+            if (saturatedTime >= time) {
+                double remainingWork = work - cores * mips * time;
+                result.addProcessingTime((work + remainingWork) / 2 * time / avgTaskLength);
+                return remainingWork;
+            }
+            workTime += (work + saturatedWork) / 2 * saturatedTime;
+            work = saturatedWork;
+            time -= saturatedTime;
+        }
+        //each running task has its own core, so the work drains in proportion to itself
+        double rate = mips / avgTaskLength;
+        double remainingWork = work * Math.exp(-rate * time);
+        workTime += (work - remainingWork) / rate;
+        result.addProcessingTime(workTime / avgTaskLength);
+        return remainingWork;
+    }
+}
@@ -0,0 +1,93 @@
+package edu.boun.edgecloudsim.applications.rsu_placement.placement;
+
+/**
+ * Task counts and delays predicted by the surrogate evaluator for one placement. The counts
+ * use the categories of the simulation logger, delays are means over the completed tasks.
+ */
+public class SurrogateResult {
+
+    private int taskCount;
+    private int completedTaskCount;
+    private int failedDueToRange;
+    private int failedDueToCapacity;
+    private int failedDueToBandwidth;
+    private double processingTime; //total of the completed tasks, seconds
+    private double networkDelay;
+
+    void addFailedDueToRange(int count) {
+        taskCount += count;
+        failedDueToRange += count;
+    }
+
+    void addFailedDueToCapacity(int count) {
+        taskCount += count;
+        failedDueToCapacity += count;
+    }
+
+    void addFailedDueToBandwidth(int count) {
+        taskCount += count;
+        failedDueToBandwidth += count;
+    }
+
+    void addCompleted(int count, double networkDelay) {
+        taskCount += count;
+        completedTaskCount += count;
+        this.networkDelay += count * networkDelay;
+    }
+
+    void add(SurrogateResult other) {
+        taskCount += other.taskCount;
+        completedTaskCount += other.completedTaskCount;
+        failedDueToRange += other.failedDueToRange;
+        failedDueToCapacity += other.failedDueToCapacity;
+        failedDueToBandwidth += other.failedDueToBandwidth;
+        processingTime += other.processingTime;
+        networkDelay += other.networkDelay;
+    }
+
+    //processing time is added in total since the surrogate follows the work, not the tasks
+    void addProcessingTime(double processingTime) {
+        this.processingTime += processingTime;
+    }
+
+    public int getTaskCount() {
+        return taskCount;
+    }
+
+    public int getCompletedTaskCount() {
+        return completedTaskCount;
+    }
+
+    public int getFailedTaskCount() {
+        return failedDueToRange + failedDueToCapacity + failedDueToBandwidth;
+    }
+
+    public int getFailedDueToRange() {
+        return failedDueToRange;
+    }
+
+    public int getFailedDueToCapacity() {
+        return failedDueToCapacity;
+    }
+
+    public int getFailedDueToBandwidth() {
+        return failedDueToBandwidth;
+    }
+
+    //percentage of the tasks which failed for any reason
+    public double getFailureRate() {
+        return taskCount == 0 ? 0 : 100d * getFailedTaskCount() / taskCount;
+    }
+
+    public double getAvgServiceTime() {
+        return completedTaskCount == 0 ? 0 : (processingTime + networkDelay) / completedTaskCount;
+    }
+
+    public double getAvgProcessingTime() {
+        return completedTaskCount == 0 ? 0 : processingTime / completedTaskCount;
+    }
+
+    public double getAvgNetworkDelay() {
+        return completedTaskCount == 0 ? 0 : networkDelay / completedTaskCount;
+    }
+}
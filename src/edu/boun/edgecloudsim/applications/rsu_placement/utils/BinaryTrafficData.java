@@ -0,0 +1,47 @@
+package edu.boun.edgecloudsim.applications.rsu_placement.utils;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * Columns of a binary trace file as read only views of the memory mapping, created by
+ * {@link FileUtils#mapTrafficData(String)}. The samples of timestep i are in
+ * [getStepOffsets()[i], getStepOffsets()[i+1]); the last offset is the sample count.
+ * Only absolute get methods should be used on the views, so they can be shared by threads.
+ */
+public class BinaryTrafficData {
+
+    private final DoubleBuffer stepTimes;
+    private final int[] stepOffsets;
+    private final IntBuffer vehicleIds;
+    private final DoubleBuffer lats;
+    private final DoubleBuffer lngs;
+
+    BinaryTrafficData(DoubleBuffer stepTimes, int[] stepOffsets, IntBuffer vehicleIds, DoubleBuffer lats, DoubleBuffer lngs) {
+        this.stepTimes = stepTimes;
+        this.stepOffsets = stepOffsets;
+        this.vehicleIds = vehicleIds;
+        this.lats = lats;
+        this.lngs = lngs;
+    }
+
+    public DoubleBuffer getStepTimes() {
+        return stepTimes;
+    }
+
+    public int[] getStepOffsets() {
+        return stepOffsets;
+    }
+
+    public IntBuffer getVehicleIds() {
+        return vehicleIds;
+    }
+
+    public DoubleBuffer getLats() {
+        return lats;
+    }
+
+    public DoubleBuffer getLngs() {
+        return lngs;
+    }
+}
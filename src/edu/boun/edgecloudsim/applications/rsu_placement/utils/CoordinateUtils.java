@@ -1,64 +1,29 @@
 package edu.boun.edgecloudsim.applications.rsu_placement.utils;
 
-/*::::::::::::::::::::::::::::::::::::::::::::::::::::::::::::::::::::::::::::*/
-/*::                                                                         :*/
-/*::  This routine calculates the distance between two points (given the     :*/
-/*::  latitude/longitude of those points). It is being used to calculate     :*/
-/*::  the distance between two locations using GeoDataSource (TM) prodducts  :*/
-/*::                                                                         :*/
-/*::  Definitions:                                                           :*/
-/*::    South latitudes are negative, east longitudes are positive           :*/
-/*::                                                                         :*/
-/*::  Passed to function:                                                    :*/
-/*::    lat1, lon1 = Latitude and Longitude of point 1 (in decimal degrees)  :*/
-/*::    lat2, lon2 = Latitude and Longitude of point 2 (in decimal degrees)  :*/
-/*::    unit = the unit you desire for results                               :*/
-/*::           where: 'M' is statute miles (default)                         :*/
-/*::                  'K' is kilometers                                      :*/
-/*::                  'N' is nautical miles                                  :*/
-/*::  Worldwide cities and other features databases with latitude longitude  :*/
-/*::  are available at https://www.geodatasource.com                         :*/
-/*::                                                                         :*/
-/*::  For enquiries, please contact sales@geodatasource.com                  :*/
-/*::                                                                         :*/
-/*::  Official Web site: https://www.geodatasource.com                       :*/
-/*::                                                                         :*/
-/*::           GeoDataSource.com (C) All Rights Reserved 2018                :*/
-/*::                                                                         :*/
-/*::::::::::::::::::::::::::::::::::::::::::::::::::::::::::::::::::::::::::::*/
-
 import edu.boun.edgecloudsim.applications.rsu_placement.model.Coordinate;
 
 public class CoordinateUtils {
 
-//    public static void main (String[] args) throws java.lang.Exception
-//    {
-//        System.out.println(distance(32.9697, -96.80322, 29.46786, -98.53506, "M") + " Miles\n");
-//        System.out.println(distance(32.9697, -96.80322, 29.46786, -98.53506, "K") + " Kilometers\n");
-//        System.out.println(distance(32.9697, -96.80322, 29.46786, -98.53506, "N") + " Nautical Miles\n");
-//    }
+    public static final double EARTH_RADIUS_IN_METER = 6371000d;
+    public static final double METERS_PER_DEGREE = EARTH_RADIUS_IN_METER * Math.PI / 180d;
 
     public static double calculateDistance(Coordinate c1 , Coordinate c2) {
-        return checkDistanceInMeter(c1.getLat(), c1.getLng(), c2.getLat(), c2.getLng(), "K") * 1000d;
+        return distanceInMeter(c1.getLat(), c1.getLng(), c2.getLat(), c2.getLng());
+    }
+
+    /**
+     * Equirectangular approximation of the distance between two points given in decimal degrees.
+     * It needs a single cosine and stays accurate to centimetres for the few kilometre distances
+     * of the simulation area, where the arccos based great circle formula loses precision.
+     */
+    public static double distanceInMeter(double lat1, double lon1, double lat2, double lon2) {
+        double dx = (lon2 - lon1) * Math.cos(Math.toRadians((lat1 + lat2) * 0.5));
+        double dy = lat2 - lat1;
+        return METERS_PER_DEGREE * Math.sqrt(dx * dx + dy * dy);
     }
 
-    private static double checkDistanceInMeter(double lat1, double lon1, double lat2, double lon2, String unit) {
-        if ((lat1 == lat2) && (lon1 == lon2)) {
-            return 0;
-        }
-        else {
-            double theta = lon1 - lon2;
-            double dist = Math.sin(Math.toRadians(lat1)) * Math.sin(Math.toRadians(lat2)) + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.cos(Math.toRadians(theta));
-            dist = Math.acos(dist);
-            dist = Math.toDegrees(dist);
-            dist = dist * 60 * 1.1515;
-            if (unit == "K") {
-                dist = dist * 1.609344;
-            } else if (unit == "N") {
-                dist = dist * 0.8684;
-            }
-            return (dist);
-        }
+    public static double metersPerLngDegree(double lat) {
+        return METERS_PER_DEGREE * Math.cos(Math.toRadians(lat));
     }
 
     public static final double lat2y(double aLat) {
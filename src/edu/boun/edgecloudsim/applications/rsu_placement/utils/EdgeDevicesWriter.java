@@ -0,0 +1,86 @@
+package edu.boun.edgecloudsim.applications.rsu_placement.utils;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes RSUs as the datacenters of an edge_devices XML file. Each RSU has a single host
+ * with a single VM, resources of the host and the VM are given in cores; mips, ram and
+ * storage grow with the number of cores in the same ratio as the hand written files.
+ */
+public class EdgeDevicesWriter implements Closeable {
+
+    private static final int MIPS_PER_CORE = 1250;
+    private static final int RAM_PER_CORE = 500;
+    private static final int STORAGE_PER_CORE = 10000;
+
+    private static String nodeTemplate = "\t<datacenter arch=\"x86\" os=\"Linux\" vmm=\"Xen\">\n" +
+            "\t\t<costPerBw>0.1</costPerBw>\n" +
+            "\t\t<costPerSec>3.0</costPerSec>\n" +
+            "\t\t<costPerMem>0.05</costPerMem>\n" +
+            "\t\t<costPerStorage>0.1</costPerStorage>\n" +
+            "\t\t<location>\n" +
+            "\t\t\t<x_pos>%s</x_pos>\n" +
+            "\t\t\t<y_pos>%s</y_pos>\n" +
+            "\t\t\t<wlan_id>%s</wlan_id>\n" +
+            "\t\t\t<attractiveness>0</attractiveness>\n" +
+            "\t\t</location>\n" +
+            "\t\t<hosts>\n" +
+            "\t\t\t<host>\n" +
+            "\t\t\t\t<core>%d</core>\n" +
+            "\t\t\t\t<mips>%d</mips>\n" +
+            "\t\t\t\t<ram>%d</ram>\n" +
+            "\t\t\t\t<storage>%d</storage>\n" +
+            "\t\t\t\t<VMs>\n" +
+            "\t\t\t\t\t<VM vmm=\"Xen\">\n" +
+            "\t\t\t\t\t\t<core>%d</core>\n" +
+            "\t\t\t\t\t\t<mips>%d</mips>\n" +
+            "\t\t\t\t\t\t<ram>%d</ram>\n" +
+            "\t\t\t\t\t\t<storage>%d</storage>\n" +
+            "\t\t\t\t\t</VM>\n" +
+            "\t\t\t\t</VMs>\n" +
+            "\t\t\t</host>\n" +
+            "\t\t</hosts>\n" +
+            "\t</datacenter>";
+
+    private final BufferedWriter writer;
+    private int rsuCount;
+
+    public EdgeDevicesWriter(Path file) throws IOException {
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        appendLine("<?xml version=\"1.0\"?>");
+        appendLine("<edge_devices>");
+    }
+
+    //RSUs get the wlan ids in the order they are written
+    public void writeRSU(double lat, double lng, int hostCores, int vmCores) throws IOException {
+        appendLine(String.format(nodeTemplate, lng, lat, rsuCount,
+                hostCores, hostCores * MIPS_PER_CORE, hostCores * RAM_PER_CORE, hostCores * STORAGE_PER_CORE,
+                vmCores, vmCores * MIPS_PER_CORE, vmCores * RAM_PER_CORE, vmCores * STORAGE_PER_CORE));
+        rsuCount++;
+    }
+
+    //mips of a VM with the given number of cores as written by this class
+    public static int getVmMips(int vmCores) {
+        return vmCores * MIPS_PER_CORE;
+    }
+
+    public int getRSUCount() {
+        return rsuCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        appendLine("</edge_devices>");
+        writer.close();
+    }
+
+    private void appendLine(String line) throws IOException {
+        writer.write(line);
+        writer.newLine();
+    }
+}
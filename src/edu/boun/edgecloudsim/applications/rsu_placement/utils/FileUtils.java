@@ -7,11 +7,105 @@ import org.xml.sax.SAXException;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 
 public class FileUtils {
 
+    //binary trace layout: header(magic, version, timestep count, sample count),
+    //timestep time and first sample index columns, then vehicle id, lat and lng columns of the samples;
+    //the time of a sample is the time of its timestep
+    public static final String BINARY_TRACE_EXTENSION = ".bin";
+    public static final int BINARY_TRACE_MAGIC = 0x52535554; //"RSUT"
+    public static final int BINARY_TRACE_VERSION = 2;
+    public static final int BINARY_TRACE_HEADER_SIZE = Integer.BYTES + Integer.BYTES + Long.BYTES + Long.BYTES;
+
+    public static boolean isBinaryTrafficData(String filePath) {
+        return filePath.endsWith(BINARY_TRACE_EXTENSION);
+    }
+
+    /**
+     * Memory-maps the columns of a binary trace file created by {@link TrafficTraceConverter}.
+     * The mapping is read only, so parallel simulation processes share the same page cache,
+     * and the columns are not copied to the heap. Only the timestep offsets, one per
+     * timestep, are converted to an int array.
+     */
+    public static BinaryTrafficData mapTrafficData(String filePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, BINARY_TRACE_HEADER_SIZE);
+            if (header.getInt() != BINARY_TRACE_MAGIC || header.getInt() != BINARY_TRACE_VERSION) {
+                throw new IOException("Unsupported binary traffic file: " + filePath);
+            }
+            int stepCount = Math.toIntExact(header.getLong());
+            int sampleCount = Math.toIntExact(header.getLong());
+            long position = BINARY_TRACE_HEADER_SIZE;
+            DoubleBuffer stepTimes = channel.map(FileChannel.MapMode.READ_ONLY, position, (long) stepCount * Double.BYTES).asDoubleBuffer();
+            position += (long) stepCount * Double.BYTES;
+            LongBuffer stepStarts = channel.map(FileChannel.MapMode.READ_ONLY, position, (long) stepCount * Long.BYTES).asLongBuffer();
+            position += (long) stepCount * Long.BYTES;
+            IntBuffer vehicleIds = channel.map(FileChannel.MapMode.READ_ONLY, position, (long) sampleCount * Integer.BYTES).asIntBuffer();
+            position += (long) sampleCount * Integer.BYTES;
+            DoubleBuffer lats = channel.map(FileChannel.MapMode.READ_ONLY, position, (long) sampleCount * Double.BYTES).asDoubleBuffer();
+            position += (long) sampleCount * Double.BYTES;
+            DoubleBuffer lngs = channel.map(FileChannel.MapMode.READ_ONLY, position, (long) sampleCount * Double.BYTES).asDoubleBuffer();
+
+            int[] stepOffsets = new int[stepCount + 1];
+            for (int step = 0; step < stepCount; step++) {
+                stepOffsets[step] = Math.toIntExact(stepStarts.get(step));
+            }
+            stepOffsets[stepCount] = sampleCount;
+            return new BinaryTrafficData(stepTimes, stepOffsets, vehicleIds, lats, lngs);
+        }
+    }
+
+    /**
+     * Streams the timestep/vehicle records of a SUMO traffic file into the given handler.
+     * Unlike {@link #readTimeStepListFromTrafficData(String)}, no DOM is built so the
+     * memory usage does not depend on the size of the trace.
+     */
+    public static void readTrafficData(String filePath, TrafficDataHandler handler) throws IOException, XMLStreamException {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        try (InputStream in = new BufferedInputStream(new FileInputStream(filePath), 1 << 16)) {
+            XMLStreamReader reader = factory.createXMLStreamReader(in);
+            try {
+                double time = 0;
+                while (reader.hasNext()) {
+                    if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                        continue;
+                    }
+                    String name = reader.getLocalName();
+                    if ("timestep".equals(name)) {
+                        time = Double.parseDouble(reader.getAttributeValue(null, "time"));
+                        handler.timeStepStarted(time);
+                    } else if ("vehicle".equals(name)) {
+                        int vehicleId = Integer.parseInt(reader.getAttributeValue(null, "id"));
+                        double lat = Double.parseDouble(reader.getAttributeValue(null, "y"));
+                        double lng = Double.parseDouble(reader.getAttributeValue(null, "x"));
+                        handler.vehicleRead(time, vehicleId, lat, lng);
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        }
+    }
+
     public static NodeList readTimeStepListFromTrafficData(String filePath) throws ParserConfigurationException, IOException, SAXException {
         Document doc;
         File trafficFile = new File(filePath);
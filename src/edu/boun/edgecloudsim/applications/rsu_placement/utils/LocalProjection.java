@@ -0,0 +1,53 @@
+package edu.boun.edgecloudsim.applications.rsu_placement.utils;
+
+import edu.boun.edgecloudsim.core.SimSettings;
+
+/**
+ * Projects coordinates to planar east/north meters around a reference point.
+ * Positions which are compared often (RSUs) are projected once, after that a range check
+ * is a squared distance comparison. Over the few kilometres of the simulation area the
+ * error of the projection stays in the order of centimetres for WLAN range distances.
+ */
+public class LocalProjection {
+
+    private final double referenceLat;
+    private final double referenceLng;
+    private final double metersPerLngDegree;
+
+    public LocalProjection(double referenceLat, double referenceLng) {
+        this.referenceLat = referenceLat;
+        this.referenceLng = referenceLng;
+        this.metersPerLngDegree = CoordinateUtils.metersPerLngDegree(referenceLat);
+    }
+
+    //projection around the center of the simulation bounds
+    public static LocalProjection forSimulationArea(SimSettings SS) {
+        return forBounds(SS.getNorthernBound(), SS.getSouthernBound(), SS.getEasternBound(), SS.getWesternBound());
+    }
+
+    public static LocalProjection forBounds(double northernBound, double southernBound, double easternBound, double westernBound) {
+        return new LocalProjection((northernBound + southernBound) / 2d, (easternBound + westernBound) / 2d);
+    }
+
+    public double toX(double lng) {
+        return (lng - referenceLng) * metersPerLngDegree;
+    }
+
+    public double toY(double lat) {
+        return (lat - referenceLat) * CoordinateUtils.METERS_PER_DEGREE;
+    }
+
+    public double toLng(double x) {
+        return x / metersPerLngDegree + referenceLng;
+    }
+
+    public double toLat(double y) {
+        return y / CoordinateUtils.METERS_PER_DEGREE + referenceLat;
+    }
+
+    public static double distanceSquare(double x1, double y1, double x2, double y2) {
+        double dx = x1 - x2;
+        double dy = y1 - y2;
+        return dx * dx + dy * dy;
+    }
+}
@@ -15,49 +15,16 @@ import static java.lang.Math.*;
 
 public class RandomRSUGenerator {
 
-    private static String nodeTemplate = "\t<datacenter arch=\"x86\" os=\"Linux\" vmm=\"Xen\">\n" +
-            "\t\t<costPerBw>0.1</costPerBw>\n" +
-            "\t\t<costPerSec>3.0</costPerSec>\n" +
-            "\t\t<costPerMem>0.05</costPerMem>\n" +
-            "\t\t<costPerStorage>0.1</costPerStorage>\n" +
-            "\t\t<location>\n" +
-            "\t\t\t<x_pos>%s</x_pos>\n" +
-            "\t\t\t<y_pos>%s</y_pos>\n" +
-            "\t\t\t<wlan_id>%s</wlan_id>\n" +
-            "\t\t\t<attractiveness>0</attractiveness>\n" +
-            "\t\t</location>\n" +
-            "\t\t<hosts>\n" +
-            "\t\t\t<host>\n" +
-            "\t\t\t\t<core>2</core>\n" +
-            "\t\t\t\t<mips>2500</mips>\n" +
-            "\t\t\t\t<ram>1000</ram>\n" +
-            "\t\t\t\t<storage>20000</storage>\n" +
-            "\t\t\t\t<VMs>\n" +
-            "\t\t\t\t\t<VM vmm=\"Xen\">\n" +
-            "\t\t\t\t\t\t<core>1</core>\n" +
-            "\t\t\t\t\t\t<mips>1250</mips>\n" +
-            "\t\t\t\t\t\t<ram>500</ram>\n" +
-            "\t\t\t\t\t\t<storage>10000</storage>\n" +
-            "\t\t\t\t\t</VM>\n" +
-            "\t\t\t\t</VMs>\n" +
-            "\t\t\t</host>\n" +
-            "\t\t</hosts>\n" +
-            "\t</datacenter>";
-
-
     public static void main(String[] args) throws IOException {
         String outputFolder = "scripts/rsu_placement/random_rsu/";
         final Path file1 = Paths.get(outputFolder, "random_rsu.xml");
         final Path file2 = Paths.get(outputFolder, "random_rsu_coordinates.csv");
 
         try (
-                final BufferedWriter rsuBW = Files.newBufferedWriter(file1, StandardCharsets.UTF_8,
-                        StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                final EdgeDevicesWriter rsuWriter = new EdgeDevicesWriter(file1);
                 final BufferedWriter csvBW = Files.newBufferedWriter(file2, StandardCharsets.UTF_8,
                         StandardOpenOption.CREATE, StandardOpenOption.WRITE);
         ) {
-            appendToFile(rsuBW, "<?xml version=\"1.0\"?>");
-            appendToFile(rsuBW, "<edge_devices>");
             appendToFile(csvBW, "title,latitude,longitude");
 
             Random random = new Random();
@@ -68,13 +35,11 @@ public class RandomRSUGenerator {
                 int distance = random.nextInt(1500);
                 double[] coordinates = movePoint(lat, lang, distance, bearing);
 
-                String node = String.format(nodeTemplate, coordinates[1], coordinates[0], i);
-                appendToFile(rsuBW, node);
+                rsuWriter.writeRSU(coordinates[0], coordinates[1], 2, 1);
 
                 String csvLine = String.format("%d,%f,%f", i, coordinates[0], coordinates[1]);
                 appendToFile(csvBW, csvLine);
             }
-            appendToFile(rsuBW, "</edge_devices>");
         }
 
     }
@@ -0,0 +1,15 @@
+package edu.boun.edgecloudsim.applications.rsu_placement.utils;
+
+/**
+ * Receives the records of a SUMO traffic trace while it is being streamed by
+ * {@link FileUtils#readTrafficData(String, TrafficDataHandler)}.
+ * Records are pushed in file order, so all vehicles of a timestep are
+ * delivered right after the related {@link #timeStepStarted(double)} call.
+ */
+public interface TrafficDataHandler {
+
+    default void timeStepStarted(double time) {
+    }
+
+    void vehicleRead(double time, int vehicleId, double lat, double lng);
+}
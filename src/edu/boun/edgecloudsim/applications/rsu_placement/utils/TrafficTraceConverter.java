@@ -0,0 +1,94 @@
+package edu.boun.edgecloudsim.applications.rsu_placement.utils;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+
+/**
+ * Converts a SUMO traffic XML file into the columnar binary trace format which is
+ * memory-mapped by {@link FileUtils#mapTrafficData(String)}.
+ * Each column is streamed into a temporary file first, so the conversion runs in constant memory.
+ *
+ * usage: TrafficTraceConverter input.xml [output.bin]
+ */
+public class TrafficTraceConverter {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.out.println("usage: TrafficTraceConverter <traffic xml file> [binary trace file]");
+            System.exit(1);
+        }
+        String inputFile = args[0];
+        String outputFile = args.length > 1 ? args[1] : inputFile.replaceFirst("\\.xml$", "") + FileUtils.BINARY_TRACE_EXTENSION;
+        long sampleCount = convert(inputFile, outputFile);
+        System.out.println(sampleCount + " vehicle samples are written to " + outputFile);
+    }
+
+    public static long convert(String inputFile, String outputFile) throws Exception {
+        File outputDir = new File(outputFile).getAbsoluteFile().getParentFile();
+        File[] columnFiles = new File[5];
+        DataOutputStream[] columns = new DataOutputStream[columnFiles.length];
+        try {
+            for (int i = 0; i < columnFiles.length; i++) {
+                columnFiles[i] = File.createTempFile("trace_column" + i, ".tmp", outputDir);
+                columns[i] = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(columnFiles[i]), 1 << 16));
+            }
+            long[] counts = new long[2]; //timestep count, sample count
+            try {
+                FileUtils.readTrafficData(inputFile, new TrafficDataHandler() {
+                    @Override
+                    public void timeStepStarted(double time) {
+                        try {
+                            columns[0].writeDouble(time);
+                            columns[1].writeLong(counts[1]);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        counts[0]++;
+                    }
+
+                    @Override
+                    public void vehicleRead(double time, int vehicleId, double lat, double lng) {
+                        try {
+                            columns[2].writeInt(vehicleId);
+                            columns[3].writeDouble(lat);
+                            columns[4].writeDouble(lng);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        counts[1]++;
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            } finally {
+                for (DataOutputStream column : columns) {
+                    if (column != null) {
+                        column.close();
+                    }
+                }
+            }
+
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(outputFile), 1 << 16))) {
+                out.writeInt(FileUtils.BINARY_TRACE_MAGIC);
+                out.writeInt(FileUtils.BINARY_TRACE_VERSION);
+                out.writeLong(counts[0]);
+                out.writeLong(counts[1]);
+                for (File columnFile : columnFiles) {
+                    Files.copy(columnFile.toPath(), out);
+                }
+            }
+            return counts[1];
+        } finally {
+            for (File columnFile : columnFiles) {
+                if (columnFile != null) {
+                    columnFile.delete();
+                }
+            }
+        }
+    }
+}
@@ -23,6 +23,14 @@ import edu.boun.edgecloudsim.task_generator.LoadGeneratorModel;
 import edu.boun.edgecloudsim.network.NetworkModel;
 
 public interface ScenarioFactory {
+	/**
+	 * provides the context of the simulation using this factory
+	 * the global settings and logger are used by default
+	 */
+	public default SimContext getSimContext() {
+		return SimContext.global();
+	}
+
 	/**
 	 * provides abstract Load Generator Model
 	 */
@@ -0,0 +1,68 @@
+/*
+ * Title:        EdgeCloudSim - Simulation Context
+ * 
+ * Description: 
+ * SimContext keeps the state which belongs to a single simulation run:
+ * its settings, its logger, its simulation manager and the number of
+ * created edge VMs. Components receiving a context do not need the
+ * global SimSettings, SimLogger and SimManager instances.
+ * 
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.core;
+
+import edu.boun.edgecloudsim.utils.SimLogger;
+
+public class SimContext {
+	private final SimSettings settings;
+	private final SimLogger logger;
+	private SimManager simManager;
+	private int createdEdgeVmNum;
+
+	/*
+	 * creates a context with its own logger
+	 * settings should be initialized before the simulation is started
+	 */
+	public SimContext(SimSettings _settings) {
+		settings = _settings;
+		logger = new SimLogger(this);
+	}
+
+	private SimContext(SimSettings _settings, SimLogger _logger) {
+		settings = _settings;
+		logger = _logger;
+	}
+
+	/*
+	 * context backed by the global SimSettings and SimLogger instances
+	 */
+	public static SimContext global() {
+		return new SimContext(SimSettings.getInstance(), SimLogger.getInstance());
+	}
+
+	public SimSettings getSettings() {
+		return settings;
+	}
+
+	public SimLogger getLogger() {
+		return logger;
+	}
+
+	public SimManager getSimManager() {
+		return simManager;
+	}
+
+	void setSimManager(SimManager _simManager) {
+		simManager = _simManager;
+	}
+
+	public void edgeVmCreated() {
+		createdEdgeVmNum++;
+	}
+
+	public int getCreatedEdgeVmNum() {
+		return createdEdgeVmNum;
+	}
+}
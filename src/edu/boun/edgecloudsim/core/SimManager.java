@@ -13,6 +13,7 @@
 package edu.boun.edgecloudsim.core;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.cloudbus.cloudsim.Host;
@@ -23,7 +24,6 @@ import org.cloudbus.cloudsim.core.SimEvent;
 
 import edu.boun.edgecloudsim.edge_orchestrator.EdgeOrchestrator;
 import edu.boun.edgecloudsim.edge_server.EdgeServerManager;
-import edu.boun.edgecloudsim.edge_server.EdgeVmAllocationPolicy_Custom;
 import edu.boun.edgecloudsim.cloud_server.CloudServerManager;
 import edu.boun.edgecloudsim.edge_client.MobileDeviceManager;
 import edu.boun.edgecloudsim.edge_client.mobile_processing_unit.MobileServerManager;
@@ -32,6 +32,7 @@ import edu.boun.edgecloudsim.task_generator.LoadGeneratorModel;
 import edu.boun.edgecloudsim.network.NetworkModel;
 import edu.boun.edgecloudsim.utils.TaskProperty;
 import edu.boun.edgecloudsim.utils.SimLogger;
+import edu.boun.edgecloudsim.utils.SimUtils;
 
 public class SimManager extends SimEntity {
 	private static final int CREATE_TASK = 0;
@@ -39,6 +40,7 @@ public class SimManager extends SimEntity {
 	private static final int GET_LOAD_LOG = 2;
 	private static final int PRINT_PROGRESS = 3;
 	private static final int STOP_SIMULATION = 4;
+	private static final int SCHEDULE_TASKS = 5;
 	
 	private String simScenario;
 	private String orchestratorPolicy;
@@ -52,6 +54,7 @@ public class SimManager extends SimEntity {
 	private MobileServerManager mobileServerManager;
 	private LoadGeneratorModel loadGeneratorModel;
 	private MobileDeviceManager mobileDeviceManager;
+	private SimContext simContext;
 	
 	private static SimManager instance = null;
 	
@@ -61,6 +64,9 @@ public class SimManager extends SimEntity {
 		scenarioFactory = _scenarioFactory;
 		numOfMobileDevice = _numOfMobileDevice;
 		orchestratorPolicy = _orchestratorPolicy;
+		simContext = scenarioFactory.getSimContext();
+		simContext.setSimManager(this);
+		SimUtils.setSeed(simContext.getSettings().getRunSeed());
 
 		SimLogger.print("Creating tasks...");
 		loadGeneratorModel = scenarioFactory.getLoadGeneratorModel();
@@ -133,6 +139,10 @@ public class SimManager extends SimEntity {
 		return orchestratorPolicy;
 	}
 	
+	public SimContext getSimContext(){
+		return simContext;
+	}
+	
 	public ScenarioFactory getScenarioFactory(){
 		return scenarioFactory;
 	}
@@ -185,7 +195,7 @@ public class SimManager extends SimEntity {
 			}
 		}
 		
-		for(int i= 0; i<SimSettings.getInstance().getNumOfCoudHost(); i++) {
+		for(int i= 0; i<simContext.getSettings().getNumOfCoudHost(); i++) {
 			mobileDeviceManager.submitVmList(cloudServerManager.getVmList(i));
 		}
 
@@ -194,61 +204,102 @@ public class SimManager extends SimEntity {
 				mobileDeviceManager.submitVmList(mobileServerManager.getVmList(i));
 		}
 		
-		//Creation of tasks are scheduled here!
-		for(int i=0; i< loadGeneratorModel.getTaskList().size(); i++)
-			schedule(getId(), loadGeneratorModel.getTaskList().get(i).getStartTime(), CREATE_TASK, loadGeneratorModel.getTaskList().get(i));
-		
+		//Creation of tasks are scheduled one window ahead to keep the event queue small:
+		//the tasks of [0, w) are scheduled here and SCHEDULE_TASKS at time t schedules the tasks of [t+w, t+2w),
+		//so CREATE_TASK events are queued before the other events of their time which are scheduled later
+		double simulationTime = simContext.getSettings().getSimulationTime();
+		double window = simContext.getSettings().getTaskSchedulingWindow();
+		scheduleTasks(Math.min(window, simulationTime));
+		if(loadGeneratorModel.hasNextTask() && window < simulationTime)
+			schedule(getId(), 0, SCHEDULE_TASKS);
+
 		//Periodic event loops starts from here!
 		schedule(getId(), 5, CHECK_ALL_VM);
-		schedule(getId(), SimSettings.getInstance().getSimulationTime()/100, PRINT_PROGRESS);
-		schedule(getId(), SimSettings.getInstance().getVmLoadLogInterval(), GET_LOAD_LOG);
-		schedule(getId(), SimSettings.getInstance().getSimulationTime(), STOP_SIMULATION);
+		schedule(getId(), simContext.getSettings().getSimulationTime()/100, PRINT_PROGRESS);
+		schedule(getId(), simContext.getSettings().getVmLoadLogInterval(), GET_LOAD_LOG);
+		schedule(getId(), simContext.getSettings().getSimulationTime(), STOP_SIMULATION);
 		
 		SimLogger.printLine("Done.");
 	}
 
+	/*
+	 * schedules the creation of the tasks starting before the given time
+	 * tasks starting at the end of the simulation are created by STOP_SIMULATION
+	 */
+	private void scheduleTasks(double endTime) {
+		List<TaskProperty> tasks = loadGeneratorModel.getNextTasks(endTime);
+		//tasks having the same start time (e.g. a timestep of a trace) are created by a single event
+		int firstTaskOfStep = 0;
+		for(int i=1; i<=tasks.size(); i++){
+			double startTime = tasks.get(firstTaskOfStep).getStartTime();
+			if(i == tasks.size() || tasks.get(i).getStartTime() != startTime){
+				schedule(getId(), Math.max(0, startTime - CloudSim.clock()), CREATE_TASK, new ArrayList<TaskProperty>(tasks.subList(firstTaskOfStep, i)));
+				firstTaskOfStep = i;
+			}
+		}
+	}
+
 	@Override
 	public void processEvent(SimEvent ev) {
 		synchronized(this){
 			switch (ev.getTag()) {
 			case CREATE_TASK:
 				try {
-					TaskProperty edgeTask = (TaskProperty) ev.getData();
-					mobileDeviceManager.submitTask(edgeTask);						
+					@SuppressWarnings("unchecked")
+					List<TaskProperty> edgeTasks = (List<TaskProperty>) ev.getData();
+					mobileDeviceManager.submitTasks(edgeTasks);
 				} catch (Exception e) {
 					e.printStackTrace();
 					System.exit(0);
 				}
 				break;
+			case SCHEDULE_TASKS:
+				double simulationTime = simContext.getSettings().getSimulationTime();
+				double window = simContext.getSettings().getTaskSchedulingWindow();
+				double windowEnd = CloudSim.clock() + 2 * window;
+				scheduleTasks(Math.min(windowEnd, simulationTime));
+				if(loadGeneratorModel.hasNextTask() && windowEnd < simulationTime)
+					schedule(getId(), window, SCHEDULE_TASKS);
+				break;
 			case CHECK_ALL_VM:
-				int totalNumOfVm = SimSettings.getInstance().getNumOfEdgeVMs();
-				if(EdgeVmAllocationPolicy_Custom.getCreatedVmNum() != totalNumOfVm){
+				int totalNumOfVm = simContext.getSettings().getNumOfEdgeVMs();
+				if(simContext.getCreatedEdgeVmNum() != totalNumOfVm){
 					SimLogger.printLine("All VMs cannot be created! Terminating simulation...");
 					System.exit(0);
 				}
 				break;
 			case GET_LOAD_LOG:
-				if(CloudSim.clock() > SimSettings.getInstance().getWarmUpPeriod()) {
-					SimLogger.getInstance().addVmUtilizationLog(CloudSim.clock(), edgeServerManager.getAvgUtilization());
+				if(CloudSim.clock() > simContext.getSettings().getWarmUpPeriod()) {
+					simContext.getLogger().addVmUtilizationLog(CloudSim.clock(), edgeServerManager.getAvgUtilization());
 				}
-				schedule(getId(), SimSettings.getInstance().getVmLoadLogInterval(), GET_LOAD_LOG);
+				schedule(getId(), simContext.getSettings().getVmLoadLogInterval(), GET_LOAD_LOG);
 				break;
 			case PRINT_PROGRESS:
-				int progress = (int)((CloudSim.clock()*100)/SimSettings.getInstance().getSimulationTime());
+				int progress = (int)((CloudSim.clock()*100)/simContext.getSettings().getSimulationTime());
 				if(progress % 10 == 0)
 					SimLogger.print(Integer.toString(progress));
 				else
 					SimLogger.print(".");
-				if(CloudSim.clock() < SimSettings.getInstance().getSimulationTime())
-					schedule(getId(), SimSettings.getInstance().getSimulationTime()/100, PRINT_PROGRESS);
+				if(CloudSim.clock() < simContext.getSettings().getSimulationTime())
+					schedule(getId(), simContext.getSettings().getSimulationTime()/100, PRINT_PROGRESS);
 
 				break;
 			case STOP_SIMULATION:
-				SimLogger.getInstance().addVmUtilizationLog(CloudSim.clock(), edgeServerManager.getAvgUtilization());
+				//STOP_SIMULATION is scheduled before the tasks of the last windows, so the CREATE_TASK events
+				//of the tasks starting at this time would come after it; they are created here instead
+				try {
+					List<TaskProperty> lastTasks = loadGeneratorModel.getNextTasks(Math.nextUp(CloudSim.clock()));
+					if(!lastTasks.isEmpty())
+						mobileDeviceManager.submitTasks(new ArrayList<TaskProperty>(lastTasks));
+				} catch (Exception e) {
+					e.printStackTrace();
+					System.exit(0);
+				}
+				simContext.getLogger().addVmUtilizationLog(CloudSim.clock(), edgeServerManager.getAvgUtilization());
 				SimLogger.printLine("100");
 				CloudSim.terminateSimulation();
 				try {
-					SimLogger.getInstance().simStopped();
+					simContext.getLogger().simStopped();
 				} catch (IOException e) {
 					e.printStackTrace();
 					System.exit(0);
@@ -28,6 +28,7 @@ import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
 import edu.boun.edgecloudsim.utils.SimLogger;
+import edu.boun.edgecloudsim.utils.SimUtils;
 
 public class SimSettings {
 	private static SimSettings instance = null;
@@ -56,6 +57,13 @@ public class SimSettings {
     private double INTERVAL_TO_GET_VM_LOCATION_LOG; //minutes unit in properties file
     private boolean FILE_LOG_ENABLED; //boolean to check file logging option
     private boolean DEEP_FILE_LOG_ENABLED; //boolean to check deep file logging option
+    private boolean DEEP_FILE_LOG_GZIP_ENABLED; //boolean to compress deep log files
+    private boolean ONLINE_LOG_AGGREGATION_ENABLED; //boolean to aggregate task results as soon as the tasks finish
+    private double TIMESERIES_WINDOW_SIZE; //seconds, time series of the RSU metrics are not logged if it is 0
+    private double TASK_SCHEDULING_WINDOW; //seconds, tasks are scheduled one window ahead
+    private long RANDOM_SEED; //current time is used if it is not given in properties file
+    private boolean COMMON_RANDOM_NUMBERS_ENABLED; //boolean to generate the same workload for all edge device files
+    private String EDGE_DEVICES_FILE_NAME;
 
     private int MIN_NUM_OF_MOBILE_DEVICES;
     private int MAX_NUM_OF_MOBILE_DEVICES;
@@ -119,6 +127,14 @@ public class SimSettings {
 		NUM_OF_PLACE_TYPES = 0;
 	}
 	
+	/*
+	 * creates settings which are independent of the global instance,
+	 * e.g. for the SimContext of a simulation running next to others
+	 */
+	public static SimSettings newInstance() {
+		return new SimSettings();
+	}
+
 	public static SimSettings getInstance() {
 		if(instance == null) {
 			instance = new SimSettings();
@@ -147,6 +163,12 @@ public class SimSettings {
 			INTERVAL_TO_GET_VM_LOCATION_LOG = Double.parseDouble(prop.getProperty("vm_location_check_interval")); //seconds
 			FILE_LOG_ENABLED = Boolean.parseBoolean(prop.getProperty("file_log_enabled"));
 			DEEP_FILE_LOG_ENABLED = Boolean.parseBoolean(prop.getProperty("deep_file_log_enabled"));
+			DEEP_FILE_LOG_GZIP_ENABLED = Boolean.parseBoolean(prop.getProperty("deep_file_log_gzip_enabled", "false"));
+			ONLINE_LOG_AGGREGATION_ENABLED = Boolean.parseBoolean(prop.getProperty("online_log_aggregation_enabled", "false"));
+			TIMESERIES_WINDOW_SIZE = Double.parseDouble(prop.getProperty("timeseries_window_size", "0")); //seconds
+			TASK_SCHEDULING_WINDOW = Double.parseDouble(prop.getProperty("task_scheduling_window", "1")); //seconds
+			RANDOM_SEED = Long.parseLong(prop.getProperty("random_seed", Long.toString(System.currentTimeMillis())));
+			COMMON_RANDOM_NUMBERS_ENABLED = Boolean.parseBoolean(prop.getProperty("common_random_numbers_enabled", "false"));
 			
 			MIN_NUM_OF_MOBILE_DEVICES = Integer.parseInt(prop.getProperty("min_number_of_mobile_devices"));
 			MAX_NUM_OF_MOBILE_DEVICES = Integer.parseInt(prop.getProperty("max_number_of_mobile_devices"));
@@ -206,10 +228,12 @@ public class SimSettings {
 				}
 			}
 		}
-		parseApplicatinosXML(applicationsFile);
-		parseEdgeDevicesXML(edgeDevicesFile);
+		//a file which cannot be parsed fails the initialization, the caller decides whether to terminate
+		boolean applicationsParsed = parseApplicatinosXML(applicationsFile);
+		boolean edgeDevicesParsed = parseEdgeDevicesXML(edgeDevicesFile);
+		EDGE_DEVICES_FILE_NAME = new File(edgeDevicesFile).getName();
 		
-		return result;
+		return result && applicationsParsed && edgeDevicesParsed;
 	}
 	
 	/**
@@ -260,6 +284,67 @@ public class SimSettings {
 		return DEEP_FILE_LOG_ENABLED; 
 	}
 
+	/**
+	 * returns gzip compression status of the deep log files from properties file
+	 */
+	public boolean getDeepFileLogGzipEnabled()
+	{
+		return DEEP_FILE_LOG_GZIP_ENABLED; 
+	}
+
+	/**
+	 * returns online aggregation status of the task results from properties file
+	 * finished tasks are aggregated and evicted by SimLogger instead of being kept until the end
+	 */
+	public boolean getOnlineLogAggregationEnabled()
+	{
+		return ONLINE_LOG_AGGREGATION_ENABLED; 
+	}
+
+	/**
+	 * returns the window size (in seconds unit) of the RSU metrics time series from properties file
+	 */
+	public double getTimeSeriesWindowSize()
+	{
+		return TIMESERIES_WINDOW_SIZE;
+	}
+
+	/**
+	 * returns the time window (in seconds unit) in which the tasks are scheduled ahead
+	 */
+	public double getTaskSchedulingWindow()
+	{
+		return TASK_SCHEDULING_WINDOW;
+	}
+
+	/**
+	 * returns the random seed from properties file
+	 */
+	public long getRandomSeed()
+	{
+		return RANDOM_SEED;
+	}
+
+	/**
+	 * returns common random numbers status from properties file
+	 */
+	public boolean getCommonRandomNumbersEnabled()
+	{
+		return COMMON_RANDOM_NUMBERS_ENABLED;
+	}
+
+	/**
+	 * returns the seed of the random streams of a simulation run
+	 * in common random numbers mode all edge device files get the same seed,
+	 * so different RSU placements are compared under the same workload
+	 */
+	public long getRunSeed()
+	{
+		if(COMMON_RANDOM_NUMBERS_ENABLED)
+			return RANDOM_SEED;
+		return SimUtils.deriveSeed(RANDOM_SEED, EDGE_DEVICES_FILE_NAME.hashCode());
+	}
+
 	/**
 	 * returns deep statistics logging status from properties file
 	 */
@@ -547,7 +632,7 @@ public class SimSettings {
 		}
 	}
 	
-	private void parseApplicatinosXML(String filePath)
+	private boolean parseApplicatinosXML(String filePath)
 	{
 		Document doc = null;
 		try {	
@@ -612,13 +697,14 @@ public class SimSettings {
 			}
 	
 		} catch (Exception e) {
-			SimLogger.printLine("Edge Devices XML cannot be parsed! Terminating simulation...");
+			SimLogger.printLine("Applications XML cannot be parsed!");
 			e.printStackTrace();
-			System.exit(0);
+			return false;
 		}
+		return true;
 	}
 
-	private void parseEdgeDevicesXML(String filePath)
+	private boolean parseEdgeDevicesXML(String filePath)
 	{
 		try {	
 			File devicesFile = new File(filePath);
@@ -627,6 +713,11 @@ public class SimSettings {
 			edgeDevicesDoc = dBuilder.parse(devicesFile);
 			edgeDevicesDoc.getDocumentElement().normalize();
 
+			//settings may be re-initialized for the next scenario of a batch
+			NUM_OF_EDGE_DATACENTERS = 0;
+			NUM_OF_EDGE_HOSTS = 0;
+			NUM_OF_EDGE_VMS = 0;
+
 			NodeList datacenterList = edgeDevicesDoc.getElementsByTagName("datacenter");
 			for (int i = 0; i < datacenterList.getLength(); i++) {
 			    NUM_OF_EDGE_DATACENTERS++;
@@ -679,9 +770,10 @@ public class SimSettings {
 			}
 	
 		} catch (Exception e) {
-			SimLogger.printLine("Edge Devices XML cannot be parsed! Terminating simulation...");
+			SimLogger.printLine("Edge Devices XML cannot be parsed!");
 			e.printStackTrace();
-			System.exit(0);
+			return false;
 		}
+		return true;
 	}
 }
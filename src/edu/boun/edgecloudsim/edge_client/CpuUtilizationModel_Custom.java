@@ -23,8 +23,14 @@ import edu.boun.edgecloudsim.utils.SimLogger;
 
 public class CpuUtilizationModel_Custom implements UtilizationModel {
 	private Task task;
+	private SimSettings settings;
 	
 	public CpuUtilizationModel_Custom(){
+		this(SimSettings.getInstance());
+	}
+	
+	public CpuUtilizationModel_Custom(SimSettings _settings){
+		settings = _settings;
 	}
 	
 	/*
@@ -39,7 +45,7 @@ public class CpuUtilizationModel_Custom implements UtilizationModel {
 		else if(task.getAssociatedDatacenterId() == SimSettings.MOBILE_DATACENTER_ID)
 			index = 11;
 
-		return SimSettings.getInstance().getTaskLookUpTable()[task.getTaskType()][index];
+		return settings.getTaskLookUpTable()[task.getTaskType()][index];
 	}
 	
 	public void setTask(Task _task){
@@ -58,6 +64,6 @@ public class CpuUtilizationModel_Custom implements UtilizationModel {
 			SimLogger.printLine("Unknown VM Type! Terminating simulation...");
 			System.exit(0);
 		}
-		return SimSettings.getInstance().getTaskLookUpTable()[task.getTaskType()][index];
+		return settings.getTaskLookUpTable()[task.getTaskType()][index];
 	}
 }
@@ -1,5 +1,7 @@
 package edu.boun.edgecloudsim.edge_client;
 
+import java.util.List;
+
 import org.cloudbus.cloudsim.DatacenterBroker;
 import org.cloudbus.cloudsim.UtilizationModel;
 
@@ -22,4 +24,13 @@ public abstract class MobileDeviceManager  extends DatacenterBroker {
 	public abstract UtilizationModel getCpuUtilizationModel();
 	
 	public abstract void submitTask(TaskProperty edgeTask);
+	
+	/*
+	 * submits the tasks which are created at the same time
+	 * managers can override it to share the work which depends only on the time
+	 */
+	public void submitTasks(List<TaskProperty> edgeTasks) {
+		for(TaskProperty edgeTask : edgeTasks)
+			submitTask(edgeTask);
+	}
 }
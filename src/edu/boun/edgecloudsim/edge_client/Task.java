@@ -25,6 +25,7 @@ public class Task extends Cloudlet {
 	private int hostIndex;
 	private int vmIndex;
 	private int datacenterId;
+	private double creationTime;
 
 	public Task(int _mobileDeviceId, int cloudletId, long cloudletLength, int pesNumber,
 			long cloudletFileSize, long cloudletOutputSize,
@@ -83,6 +84,14 @@ public class Task extends Cloudlet {
 		return type;
 	}
 
+	public void setCreationTime(double _creationTime){
+		creationTime=_creationTime;
+	}
+
+	public double getCreationTime(){
+		return creationTime;
+	}
+
 	public Coordinate getCoordinate() {
 		return coordinate;
 	}
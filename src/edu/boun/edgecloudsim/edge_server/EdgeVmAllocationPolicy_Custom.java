@@ -27,7 +27,8 @@ import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
-import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.core.SimContext;
+import edu.boun.edgecloudsim.core.SimManager;
 
 /*
  * Same as VmAllocationPolicySimple.
@@ -35,15 +36,19 @@ import edu.boun.edgecloudsim.core.SimSettings;
 public class EdgeVmAllocationPolicy_Custom extends VmAllocationPolicy {
 	/** The vm table. */
 	private Map<String, Host> vmTable;
-	private static int createdVmNum;
 	private int DataCenterIndex;
+	private SimContext simContext;
 	
 	public EdgeVmAllocationPolicy_Custom(List<? extends Host> list, int _DataCenterIndex) {
+		this(list, _DataCenterIndex, SimManager.getInstance().getSimContext());
+	}
+	
+	public EdgeVmAllocationPolicy_Custom(List<? extends Host> list, int _DataCenterIndex, SimContext _simContext) {
 		super(list);
 		
 		setVmTable(new HashMap<String, Host>());
 		DataCenterIndex=_DataCenterIndex;
-		createdVmNum = 0;
+		simContext = _simContext;
 	}
 
 	@Override
@@ -57,7 +62,7 @@ public class EdgeVmAllocationPolicy_Custom extends VmAllocationPolicy {
 			int dataCenterIndex = 0;
 			
 			//find proper datacenter id and host id for this VM
-			Document doc = SimSettings.getInstance().getEdgeDevicesDocument();
+			Document doc = simContext.getSettings().getEdgeDevicesDocument();
 			NodeList datacenterList = doc.getElementsByTagName("datacenter");
 			for (int i = 0; (!vmFound && i < datacenterList.getLength()); i++) {
 				Node datacenterNode = datacenterList.item(i);
@@ -86,7 +91,7 @@ public class EdgeVmAllocationPolicy_Custom extends VmAllocationPolicy {
 	
 				if (result) { // if vm were succesfully created in the host
 					getVmTable().put(vm.getUid(), host);
-					createdVmNum++;
+					simContext.edgeVmCreated();
 					Log.formatLine("%.2f: Edge VM #" + vm.getId() + " has been allocated to the host #" + host.getId(),CloudSim.clock());
 					result = true;
 				}
@@ -100,7 +105,7 @@ public class EdgeVmAllocationPolicy_Custom extends VmAllocationPolicy {
 	public boolean allocateHostForVm(Vm vm, Host host) {
 		if (host.vmCreate(vm)) { // if vm has been succesfully created in the host
 			getVmTable().put(vm.getUid(), host);
-			createdVmNum++;
+			simContext.edgeVmCreated();
 			
 			Log.formatLine("%.2f: Edge VM #" + vm.getId() + " has been allocated to the host #" + host.getId(),CloudSim.clock());
 			return true;
@@ -134,8 +139,12 @@ public class EdgeVmAllocationPolicy_Custom extends VmAllocationPolicy {
 		return getVmTable().get(Vm.getUid(userId, vmId));
 	}
 
+	/*
+	 * number of edge VMs created in the current simulation,
+	 * use SimContext.getCreatedEdgeVmNum() for a specific simulation
+	 */
 	public static int getCreatedVmNum(){
-		return createdVmNum;
+		return SimManager.getInstance().getSimContext().getCreatedEdgeVmNum();
 	}
 	
 	/**
@@ -13,6 +13,7 @@
 
 package edu.boun.edgecloudsim.task_generator;
 
+import java.util.Comparator;
 import java.util.List;
 
 import edu.boun.edgecloudsim.utils.TaskProperty;
@@ -22,6 +23,8 @@ public abstract class LoadGeneratorModel {
 	protected int numberOfMobileDevices;
 	protected double simulationTime;
 	protected String simScenario;
+	private int nextTaskIndex;
+	private boolean taskListSorted;
 	
 	public LoadGeneratorModel(int _numberOfMobileDevices, double _simulationTime, String _simScenario){
 		numberOfMobileDevices=_numberOfMobileDevices;
@@ -41,6 +44,31 @@ public abstract class LoadGeneratorModel {
 		return taskList;
 	}
 
+	/*
+	 * returns the tasks which start before the given time and are not returned yet,
+	 * the tasks are returned in the order of their start times
+	 * models which generate the tasks on demand can override it together with hasNextTask
+	 */
+	public List<TaskProperty> getNextTasks(double endTime) {
+		if(!taskListSorted) {
+			//stable sort keeps the order of the tasks having the same start time
+			taskList.sort(Comparator.comparingDouble(TaskProperty::getStartTime));
+			taskListSorted = true;
+		}
+		
+		int fromIndex = nextTaskIndex;
+		while(nextTaskIndex < taskList.size() && taskList.get(nextTaskIndex).getStartTime() < endTime)
+			nextTaskIndex++;
+		return taskList.subList(fromIndex, nextTaskIndex);
+	}
+	
+	/*
+	 * returns true if there are tasks which are not returned by getNextTasks yet
+	 */
+	public boolean hasNextTask() {
+		return nextTaskIndex < taskList.size();
+	}
+
 	/*
 	 * fill task list according to related task generation model
 	 */
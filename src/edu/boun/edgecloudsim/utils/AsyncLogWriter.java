@@ -0,0 +1,132 @@
+/*
+ * Title:        EdgeCloudSim - Asynchronous Log Writer
+ *
+ * Description:
+ * AsyncLogWriter writes the lines of a log file on a background thread.
+ * Lines are passed through a bounded queue, so the simulation only waits
+ * for the disk when the writer falls behind by more than the queue size.
+ * The file can optionally be gzip compressed.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.utils;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.GZIPOutputStream;
+
+public class AsyncLogWriter implements Closeable {
+    public static final String GZIP_EXTENSION = ".gz";
+
+    private static final int QUEUE_CAPACITY = 16 * 1024;
+    private static final int BATCH_SIZE = 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    //compared by reference, a logged line can not be the same object
+    private static final String END_OF_LOG = new String("END_OF_LOG");
+
+    private final BlockingQueue<String> queue;
+    private final BufferedWriter writer;
+    private final Thread thread;
+    private volatile IOException failure;
+    private boolean closed;
+
+    public AsyncLogWriter(File file, boolean gzip) throws IOException {
+        OutputStream out = new FileOutputStream(file, true);
+        if (gzip)
+            out = new GZIPOutputStream(out, BUFFER_SIZE);
+        writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+
+        thread = new Thread(this::writeLines, "AsyncLogWriter-" + file.getName());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void writeLine(String line) throws IOException {
+        checkFailure();
+        enqueue(line);
+    }
+
+    //waits until all lines are written and the file is closed
+    @Override
+    public void close() throws IOException {
+        if (closed)
+            return;
+        closed = true;
+
+        enqueue(END_OF_LOG);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while closing the log file");
+        }
+        checkFailure();
+    }
+
+    private void enqueue(String line) throws IOException {
+        try {
+            queue.put(line);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while writing to the log file");
+        }
+    }
+
+    private void checkFailure() throws IOException {
+        if (failure != null)
+            throw failure;
+    }
+
+    private void writeLines() {
+        List<String> batch = new ArrayList<>(BATCH_SIZE);
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                //the writer thread is not interrupted by this class, keep serving the queue
+                continue;
+            }
+            queue.drainTo(batch, BATCH_SIZE - 1);
+
+            for (String line : batch) {
+                if (line == END_OF_LOG) {
+                    closeWriter();
+                    return;
+                }
+                //after a failure the lines are dropped so that the producer never blocks
+                if (failure == null) {
+                    try {
+                        writer.write(line);
+                        writer.newLine();
+                    } catch (IOException e) {
+                        failure = e;
+                    }
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    private void closeWriter() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            if (failure == null)
+                failure = e;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Title:        EdgeCloudSim - Latency Histogram
+ *
+ * Description:
+ * LatencyHistogram counts latency values in log-linear buckets in the
+ * manner of HDR histograms. Values are kept in microseconds, every power
+ * of two range is divided into the same number of linear sub buckets, so
+ * the relative error of a reported percentile stays below 1% while the
+ * memory is fixed regardless of the number of recorded values.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.utils;
+
+public class LatencyHistogram {
+    private static final double UNITS_PER_SECOND = 1000000d; //microseconds
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    //values up to 2^40 microseconds (~12 days) are distinguished, larger ones fall into the last bucket
+    private static final int MAX_MAGNITUDE = 40;
+    private static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (MAX_MAGNITUDE - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+    private final long[] counts;
+    private long totalCount;
+    private double sum;
+    private double min;
+    private double max;
+
+    public LatencyHistogram() {
+        counts = new long[BUCKET_COUNT];
+        min = Double.MAX_VALUE;
+        max = 0;
+    }
+
+    //records a latency given in seconds
+    public void recordValue(double seconds) {
+        if (seconds < 0)
+            seconds = 0;
+        counts[getBucketIndex((long) (seconds * UNITS_PER_SECOND))]++;
+        totalCount++;
+        sum += seconds;
+        min = Math.min(min, seconds);
+        max = Math.max(max, seconds);
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public double getMean() {
+        return totalCount == 0 ? 0 : sum / totalCount;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    //value in seconds which is greater than or equal to the given percentage of the recorded values
+    public double getValueAtPercentile(double percentile) {
+        if (totalCount == 0)
+            return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100d * totalCount));
+        long cumulativeCount = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            cumulativeCount += counts[i];
+            if (cumulativeCount >= rank) {
+                double value = getBucketMiddle(i) / UNITS_PER_SECOND;
+                return Math.min(max, Math.max(min, value));
+            }
+        }
+        return max;
+    }
+
+    private static int getBucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT)
+            return (int) value;
+
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        if (magnitude > MAX_MAGNITUDE)
+            return BUCKET_COUNT - 1;
+
+        int shift = magnitude - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >> shift) - SUB_BUCKET_COUNT;
+        return SUB_BUCKET_COUNT + shift * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    private static double getBucketMiddle(int index) {
+        if (index < SUB_BUCKET_COUNT)
+            return index;
+
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+        int subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+        long lowerBound = (long) (SUB_BUCKET_COUNT + subBucket) << shift;
+        return lowerBound + ((1L << shift) - 1) / 2d;
+    }
+}
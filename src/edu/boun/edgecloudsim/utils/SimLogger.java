@@ -16,6 +16,7 @@ package edu.boun.edgecloudsim.utils;
 
 import edu.boun.edgecloudsim.applications.rsu_placement.TrafficLoadGenerator;
 import edu.boun.edgecloudsim.applications.rsu_placement.model.Coordinate;
+import edu.boun.edgecloudsim.core.SimContext;
 import edu.boun.edgecloudsim.core.SimManager;
 import edu.boun.edgecloudsim.core.SimSettings;
 import edu.boun.edgecloudsim.core.SimSettings.NETWORK_DELAY_TYPES;
@@ -41,13 +42,41 @@ public class SimLogger {
         LAN_ERROR, MAN_ERROR, WAN_ERROR, NONE
     }
 
-    private static boolean fileLogEnabled;
-    private static boolean printLogEnabled;
+    // metrics of the latency histograms, the ordinal is written to the _LATENCY.log file
+    public static enum LATENCY_METRIC {
+        SERVICE_TIME, UPLOAD_DELAY, DOWNLOAD_DELAY
+    }
+
+    private static final double[] LATENCY_PERCENTILES = {50, 95, 99, 99.9};
+
+    private boolean fileLogEnabled;
+    private boolean printLogEnabled;
     private String filePrefix;
     private String outputFolder;
-    private Map<Integer, LogItem> taskMap;
-    private LinkedList<VmLoadLogItem> vmLoadList;
+    private TaskLogStore taskLog;
+    // vm load samples are written as they are taken, only the running sum of the average load is kept
+    private BufferedWriter vmLoadBW;
+    private double totalVmLoad;
+    private int numberOfVmLoadSamples;
     private int numberOfSkippedTasks;
+    private boolean onlineAggregation;
+    private AsyncLogWriter successLog, failLog;
+
+    // results of the finished tasks
+    private int numberOfTasks;
+    private int[] rsuAssignmentsAll, rsuAssignmentsFail;
+    private double totalTaskLength, totalTaskInputSize, totalTaskOutputSize;
+    private int uncompletedTask, completedTask, failedTask;
+    private double networkDelay, serviceTime, processingTime;
+    private int failedTaskDueToVmCapacity, failedTaskDuetoBw, failedTaskDuetoMobility, failedTaskDuetoNotInNetworkRange;
+
+    // latency histograms of the completed tasks, globally and per RSU host id
+    private LatencyHistogram[] latencyHistograms;
+    private LatencyHistogram[][] rsuLatencyHistograms;
+
+    // per RSU metrics in time windows, created on first use since the RSUs are known after the simulation is started
+    private WindowedMetrics timeSeries;
+    private SimContext simContext;
 
     private static SimLogger singleton = new SimLogger();
 
@@ -59,25 +88,54 @@ public class SimLogger {
         printLogEnabled = false;
     }
 
+    /*
+     * Logger of a single simulation, results are collected from the settings and
+     * the simulation manager of the given context instead of the global instances
+     */
+    public SimLogger(SimContext simContext) {
+        this.simContext = simContext;
+    }
+
     /* Static 'instance' method */
     public static SimLogger getInstance() {
         return singleton;
     }
 
+    /*
+     * The static methods configure the global instance and the static
+     * printLine/print methods, loggers of a SimContext are configured
+     * with setFileLogEnabled and setPrintLogEnabled
+     */
     public static void enableFileLog() {
-        fileLogEnabled = true;
+        singleton.fileLogEnabled = true;
     }
 
     public static void enablePrintLog() {
-        printLogEnabled = true;
+        singleton.printLogEnabled = true;
     }
 
     public static boolean isFileLogEnabled() {
-        return fileLogEnabled;
+        return singleton.fileLogEnabled;
     }
 
     public static void disablePrintLog() {
-        printLogEnabled = false;
+        singleton.printLogEnabled = false;
+    }
+
+    public void setFileLogEnabled(boolean enabled) {
+        fileLogEnabled = enabled;
+    }
+
+    public void setPrintLogEnabled(boolean enabled) {
+        printLogEnabled = enabled;
+    }
+
+    private SimSettings getSettings() {
+        return simContext == null ? SimSettings.getInstance() : simContext.getSettings();
+    }
+
+    private SimManager getSimManager() {
+        return simContext == null ? SimManager.getInstance() : simContext.getSimManager();
     }
 
     private void appendToFile(BufferedWriter bw, String line) throws IOException {
@@ -86,103 +144,324 @@ public class SimLogger {
     }
 
     public static void printLine(String msg) {
-        if (printLogEnabled)
+        if (singleton.printLogEnabled)
             System.out.println(msg);
     }
 
     public static void print(String msg) {
-        if (printLogEnabled)
+        if (singleton.printLogEnabled)
             System.out.print(msg);
     }
 
+    // results of this logger are printed if its own console output is enabled
+    private void printResultLine(String msg) {
+        if (printLogEnabled)
+            System.out.println(msg);
+    }
+
     public void simStarted(String outFolder, String fileName) {
         filePrefix = fileName;
         outputFolder = outFolder;
-        taskMap = new HashMap<Integer, LogItem>();
-        vmLoadList = new LinkedList<VmLoadLogItem>();
+        taskLog = new TaskLogStore();
+        onlineAggregation = getSettings().getOnlineLogAggregationEnabled();
+        timeSeries = null;
+        totalVmLoad = 0;
+        numberOfVmLoadSamples = 0;
+        resetTaskResults();
+
+        if (fileLogEnabled) {
+            try {
+                vmLoadBW = new BufferedWriter(new FileWriter(new File(outputFolder, filePrefix + "_VM_LOAD.log"), true));
+                appendToFile(vmLoadBW, "#auto generated file!");
+            } catch (IOException e) {
+                e.printStackTrace();
+                System.exit(0);
+            }
+        }
+
+        // results are written by a background thread while the simulation runs in online aggregation mode
+        if (onlineAggregation && fileLogEnabled && getSettings().getDeepFileLoggingEnabled()) {
+            try {
+                openDeepLogFiles();
+            } catch (IOException e) {
+                e.printStackTrace();
+                System.exit(0);
+            }
+        }
     }
 
     public void addLog(int taskId, int taskType, int taskLenght, int taskInputSize, int taskOutputSize) {
         // printLine(taskId+"->"+taskStartTime);
-        taskMap.put(taskId, new LogItem(taskType, taskLenght, taskInputSize, taskOutputSize));
+        taskLog.add(taskId, taskType, taskLenght, taskInputSize, taskOutputSize);
+        numberOfTasks++;
     }
 
     public void taskStarted(int taskId, double time) {
-        taskMap.get(taskId).taskStarted(time);
+        taskLog.taskStarted(taskId, time, getSettings().getWarmUpPeriod());
     }
 
     public void setUploadDelay(int taskId, double delay, NETWORK_DELAY_TYPES delayType) {
-        taskMap.get(taskId).setUploadDelay(delay, delayType);
+        taskLog.setUploadDelay(taskId, delay, delayType);
     }
 
     public void setDownloadDelay(int taskId, double delay, NETWORK_DELAY_TYPES delayType) {
-        taskMap.get(taskId).setDownloadDelay(delay, delayType);
+        taskLog.setDownloadDelay(taskId, delay, delayType);
     }
 
     public void taskAssigned(int taskId, int datacenterId, int hostId, int vmId, int vmType) {
-        taskMap.get(taskId).taskAssigned(datacenterId, hostId, vmId, vmType);
+        taskLog.taskAssigned(taskId, datacenterId, hostId, vmId, vmType);
+        countInTimeSeries(taskLog.getStartTime(taskId), hostId, WindowedMetrics.COUNTER.SUBMITTED);
     }
 
     public void taskExecuted(int taskId) {
-        taskMap.get(taskId).taskExecuted();
+        taskLog.taskExecuted(taskId);
     }
 
     public void taskEnded(int taskId, double time) {
-        taskMap.get(taskId).taskEnded(time);
+        taskLog.taskEnded(taskId, time);
+        recordLatencies(taskId);
+        countInTimeSeries(taskLog.getStartTime(taskId), taskLog.getHostId(taskId), WindowedMetrics.COUNTER.COMPLETED);
+        taskFinished(taskId);
     }
 
     public void rejectedDueToVMCapacity(int taskId, double time, int vmType) {
-        taskMap.get(taskId).taskRejectedDueToVMCapacity(time, vmType);
+        taskLog.taskRejectedDueToVMCapacity(taskId, time, vmType);
+        countInTimeSeries(taskLog.getStartTime(taskId), WindowedMetrics.NO_RSU, WindowedMetrics.COUNTER.FAILED_DUE_TO_VM_CAPACITY);
+        taskFinished(taskId);
     }
 
     public void rejectedDueToVMCapacity(int taskId, int hostId, double time, int vmType) {
-        taskMap.get(taskId).taskRejectedDueToVMCapacity(time, hostId, vmType);
+        taskLog.taskRejectedDueToVMCapacity(taskId, time, hostId, vmType);
+        countInTimeSeries(taskLog.getStartTime(taskId), hostId, WindowedMetrics.COUNTER.SUBMITTED);
+        countInTimeSeries(taskLog.getStartTime(taskId), hostId, WindowedMetrics.COUNTER.FAILED_DUE_TO_VM_CAPACITY);
+        taskFinished(taskId);
     }
 
     public void rejectedDueToNotInNetworkRange(int taskId, double time) {
-        taskMap.get(taskId).rejectedDueToNotInNetworkRange(time);
+        taskLog.rejectedDueToNotInNetworkRange(taskId, time);
+        // the task is rejected before it is started
+        countInTimeSeries(time, WindowedMetrics.NO_RSU, WindowedMetrics.COUNTER.FAILED_DUE_TO_NOT_IN_NETWORK_RANGE);
+        taskFinished(taskId);
     }
 
     public void rejectedDueToBandwidth(int taskId, double time, int vmType, NETWORK_DELAY_TYPES delayType) {
-        taskMap.get(taskId).taskRejectedDueToBandwidth(time, vmType, delayType);
+        taskLog.taskRejectedDueToBandwidth(taskId, time, vmType, delayType);
+        // the task is rejected before it is started
+        countInTimeSeries(time, WindowedMetrics.NO_RSU, WindowedMetrics.COUNTER.FAILED_DUE_TO_BANDWIDTH);
+        taskFinished(taskId);
     }
 
     public void failedDueToBandwidth(int taskId, double time, NETWORK_DELAY_TYPES delayType) {
-        taskMap.get(taskId).taskFailedDueToBandwidth(time, delayType);
+        taskLog.taskFailedDueToBandwidth(taskId, time, delayType);
+        countInTimeSeries(taskLog.getStartTime(taskId), taskLog.getHostId(taskId), WindowedMetrics.COUNTER.FAILED_DUE_TO_BANDWIDTH);
+        taskFinished(taskId);
     }
 
     public void failedDueToMobility(int taskId, double time) {
-        taskMap.get(taskId).taskFailedDueToMobility(time);
+        taskLog.taskFailedDueToMobility(taskId, time);
+        countInTimeSeries(taskLog.getStartTime(taskId), taskLog.getHostId(taskId), WindowedMetrics.COUNTER.FAILED_DUE_TO_MOBILITY);
+        taskFinished(taskId);
     }
 
     public void addVmUtilizationLog(double time, double[] loadOnEdge) {
-        vmLoadList.add(new VmLoadLogItem(time, loadOnEdge));
+        totalVmLoad += loadOnEdge[0];
+        numberOfVmLoadSamples++;
+
+        // finished windows of the time series are written with the load log cadence
+        try {
+            if (fileLogEnabled) {
+                // time;average load;load of each RSU
+                StringBuilder line = new StringBuilder().append(time);
+                for (double load : loadOnEdge)
+                    line.append(SimSettings.DELIMITER).append(load);
+                appendToFile(vmLoadBW, line.toString());
+            }
+            if (getTimeSeries() != null) {
+                timeSeries.utilizationSampled(time, loadOnEdge);
+                timeSeries.advance(time);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.exit(0);
+        }
+    }
+
+    private WindowedMetrics getTimeSeries() throws IOException {
+        if (timeSeries == null && fileLogEnabled && getSettings().getTimeSeriesWindowSize() > 0) {
+            int numberOfRSUs = getSimManager().getEdgeServerManager().getDatacenterList().size();
+            timeSeries = new WindowedMetrics(new File(outputFolder, filePrefix + "_TIMESERIES.log"),
+                    getSettings().getTimeSeriesWindowSize(), numberOfRSUs);
+        }
+        return timeSeries;
+    }
+
+    private void countInTimeSeries(double startTime, int hostId, WindowedMetrics.COUNTER counter) {
+        if (startTime < getSettings().getWarmUpPeriod())
+            return;
+
+        try {
+            if (getTimeSeries() != null)
+                timeSeries.count(startTime, hostId, counter);
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.exit(0);
+        }
+    }
+
+    // in online aggregation mode the result of a finished task is added to the totals and the task is evicted
+    private void taskFinished(int taskId) {
+        if (!onlineAggregation)
+            return;
+
+        try {
+            aggregate(taskId);
+            taskLog.remove(taskId);
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.exit(0);
+        }
+    }
+
+    private static LatencyHistogram[] createLatencyHistograms() {
+        LatencyHistogram[] histograms = new LatencyHistogram[LATENCY_METRIC.values().length];
+        for (int i = 0; i < histograms.length; i++)
+            histograms[i] = new LatencyHistogram();
+        return histograms;
+    }
+
+    // histograms are updated when the task ends, so the task list is not needed for the percentiles
+    private void recordLatencies(int taskId) {
+        if (taskLog.isInWarmUpPeriod(taskId))
+            return;
+
+        int hostId = taskLog.getHostId(taskId);
+        if (hostId >= rsuLatencyHistograms.length)
+            rsuLatencyHistograms = Arrays.copyOf(rsuLatencyHistograms, hostId + 1);
+        if (rsuLatencyHistograms[hostId] == null)
+            rsuLatencyHistograms[hostId] = createLatencyHistograms();
+
+        double[] values = new double[LATENCY_METRIC.values().length];
+        values[LATENCY_METRIC.SERVICE_TIME.ordinal()] = taskLog.getServiceTime(taskId);
+        values[LATENCY_METRIC.UPLOAD_DELAY.ordinal()] = taskLog.getUploadDelay(taskId);
+        values[LATENCY_METRIC.DOWNLOAD_DELAY.ordinal()] = taskLog.getDownloadDelay(taskId);
+        for (int i = 0; i < values.length; i++) {
+            latencyHistograms[i].recordValue(values[i]);
+            rsuLatencyHistograms[hostId][i].recordValue(values[i]);
+        }
+    }
+
+    // hostId;metric;count;mean;p50;p95;p99;p99.9;max, hostId is -1 for the results of all RSUs
+    private void writeLatencyHistograms(BufferedWriter latencyBW, int hostId, LatencyHistogram[] histograms) throws IOException {
+        for (LATENCY_METRIC metric : LATENCY_METRIC.values()) {
+            LatencyHistogram histogram = histograms[metric.ordinal()];
+            StringBuilder line = new StringBuilder();
+            line.append(hostId).append(SimSettings.DELIMITER)
+                    .append(metric.ordinal()).append(SimSettings.DELIMITER)
+                    .append(histogram.getTotalCount()).append(SimSettings.DELIMITER)
+                    .append(histogram.getMean());
+            for (double percentile : LATENCY_PERCENTILES)
+                line.append(SimSettings.DELIMITER).append(histogram.getValueAtPercentile(percentile));
+            line.append(SimSettings.DELIMITER).append(histogram.getMax());
+            appendToFile(latencyBW, line.toString());
+        }
+    }
+
+    private void resetTaskResults() {
+        latencyHistograms = createLatencyHistograms();
+        rsuLatencyHistograms = new LatencyHistogram[0][];
+        numberOfTasks = 0;
+        rsuAssignmentsAll = null;
+        rsuAssignmentsFail = null;
+        totalTaskLength = 0;
+        totalTaskInputSize = 0;
+        totalTaskOutputSize = 0;
+        uncompletedTask = 0;
+        completedTask = 0;
+        failedTask = 0;
+        networkDelay = 0;
+        serviceTime = 0;
+        processingTime = 0;
+        failedTaskDueToVmCapacity = 0;
+        failedTaskDuetoBw = 0;
+        failedTaskDuetoMobility = 0;
+        failedTaskDuetoNotInNetworkRange = 0;
+    }
+
+    // edge datacenters are known after the simulation is started
+    private void createRSUAssignments() {
+        int numberOfRSUs = getSimManager().getEdgeServerManager().getDatacenterList().size();
+        rsuAssignmentsAll = new int[numberOfRSUs];
+        rsuAssignmentsFail = new int[numberOfRSUs];
+    }
+
+    private void openDeepLogFiles() throws IOException {
+        boolean gzip = getSettings().getDeepFileLogGzipEnabled();
+        String extension = gzip ? ".log" + AsyncLogWriter.GZIP_EXTENSION : ".log";
+
+        successLog = new AsyncLogWriter(new File(outputFolder, filePrefix + "_SUCCESS" + extension), gzip);
+        successLog.writeLine("#auto generated file!");
+
+        failLog = new AsyncLogWriter(new File(outputFolder, filePrefix + "_FAIL" + extension), gzip);
+        failLog.writeLine("#auto generated file!");
+    }
+
+    // adds the result of a task to the totals and writes it to the deep log files if required
+    private void aggregate(int taskId) throws IOException {
+        if (rsuAssignmentsAll == null)
+            createRSUAssignments();
+
+        if (taskLog.isInWarmUpPeriod(taskId))
+            return;
+
+        //the status of the tasks are not important for this metric
+        totalTaskLength += taskLog.getTaskLenght(taskId);
+        totalTaskInputSize += taskLog.getTaskInputSize(taskId);
+        totalTaskOutputSize += taskLog.getTaskOutputSize(taskId);
+        rsuAssignmentsAll[taskLog.getHostId(taskId)]++;
+
+        SimLogger.TASK_STATUS status = taskLog.getStatus(taskId);
+        if (status == SimLogger.TASK_STATUS.COMLETED) {
+            completedTask++;
+            double taskServiceTime = taskLog.getServiceTime(taskId);
+            double taskNetworkDelay = taskLog.getNetworkDelay(taskId);
+            serviceTime += taskServiceTime;
+            networkDelay += taskNetworkDelay;
+            processingTime += (taskServiceTime - taskNetworkDelay);
+            if (fileLogEnabled && getSettings().getDeepFileLoggingEnabled())
+                successLog.writeLine(taskLog.toString(taskId));
+        } else if (status == SimLogger.TASK_STATUS.CREATED || status == SimLogger.TASK_STATUS.UPLOADING ||
+                status == SimLogger.TASK_STATUS.PROCESSING || status == SimLogger.TASK_STATUS.DOWNLOADING) {
+            uncompletedTask++;
+        } else {
+            failedTask++;
+            if (fileLogEnabled && getSettings().getDeepFileLoggingEnabled()) {
+                failLog.writeLine(taskLog.toString(taskId));
+            }
+            if (status == SimLogger.TASK_STATUS.REJECTED_DUE_TO_VM_CAPACITY) {
+                rsuAssignmentsFail[taskLog.getHostId(taskId)]++;
+                failedTaskDueToVmCapacity++;
+            } else if (status == SimLogger.TASK_STATUS.REJECTED_DUE_TO_BANDWIDTH
+                    || status == SimLogger.TASK_STATUS.UNFINISHED_DUE_TO_BANDWIDTH) {
+                failedTaskDuetoBw++;
+            } else if (status == SimLogger.TASK_STATUS.UNFINISHED_DUE_TO_MOBILITY) {
+                failedTaskDuetoMobility++;
+            } else if (status == SimLogger.TASK_STATUS.REJECTED_DUE_TO_NOT_IN_NETWORK_RANGE) {
+                failedTaskDuetoNotInNetworkRange++;
+            }
+        }
     }
 
     public void simStopped() throws IOException {
-        File successFile, failFile, vmLoadFile, genericFile, taskDistFile;
-        FileWriter successFW, failFW, vmLoadFW, genericFW, taskDistFW;
-        BufferedWriter successBW = null, failBW = null, vmLoadBW = null, genericBW = null, taskDistBW = null;
+        File genericFile, taskDistFile, latencyFile;
+        FileWriter genericFW, taskDistFW, latencyFW;
+        BufferedWriter genericBW = null, taskDistBW = null, latencyBW = null;
 
         // open all files and prepare them for write
         if (fileLogEnabled) {
-            if (SimSettings.getInstance().getDeepFileLoggingEnabled()) {
-                successFile = new File(outputFolder, filePrefix + "_SUCCESS.log");
-                successFW = new FileWriter(successFile, true);
-                successBW = new BufferedWriter(successFW);
-                appendToFile(successBW, "#auto generated file!");
-
-                failFile = new File(outputFolder, filePrefix + "_FAIL.log");
-                failFW = new FileWriter(failFile, true);
-                failBW = new BufferedWriter(failFW);
-                appendToFile(failBW, "#auto generated file!");
+            if (getSettings().getDeepFileLoggingEnabled() && !onlineAggregation) {
+                openDeepLogFiles();
             }
 
-            vmLoadFile = new File(outputFolder, filePrefix + "_VM_LOAD.log");
-            vmLoadFW = new FileWriter(vmLoadFile, true);
-            vmLoadBW = new BufferedWriter(vmLoadFW);
-            appendToFile(vmLoadBW, "#auto generated file!");
-
             genericFile = new File(outputFolder, filePrefix + "_GENERIC.log");
             genericFW = new FileWriter(genericFile, true);
             genericBW = new BufferedWriter(genericFW);
@@ -191,69 +470,22 @@ public class SimLogger {
             taskDistFile = new File(outputFolder, filePrefix + "_TASK_DIST.log");
             taskDistFW = new FileWriter(taskDistFile, true);
             taskDistBW = new BufferedWriter(taskDistFW);
-        }
-
-        double totalTaskLength = 0;
-        double totalTaskInputSize = 0;
-        double totalTaskOutputSize = 0;
-        int[] rsuAssignmentsAll = new int[SimManager.getInstance().getEdgeServerManager().getDatacenterList().size()];
-        int[] rsuAssignmentsFail = new int[SimManager.getInstance().getEdgeServerManager().getDatacenterList().size()];
-
-        int uncompletedTask = 0, completedTask = 0, failedTask = 0;
-        double networkDelay = 0d, serviceTime = 0d, processingTime = 0d, cost = 0d;
-        int failedTaskDueToVmCapacity = 0, failedTaskDuetoBw = 0, failedTaskDuetoMobility = 0, failedTaskDuetoNotInNetworkRange = 0;
-
-        // extract the result of each task and write it to the file if required
-        for (Map.Entry<Integer, LogItem> entry : taskMap.entrySet()) {
-            Integer key = entry.getKey();
-            LogItem value = entry.getValue();
 
-            if (value.isInWarmUpPeriod())
-                continue;
-
-            //the status of the tasks are not important for this metric
-            totalTaskLength += value.getTaskLenght();
-            totalTaskInputSize += value.getTaskInputSize();
-            totalTaskOutputSize += value.getTaskOutputSize();
-            rsuAssignmentsAll[value.getHostId()]++;
-
-            if (value.getStatus() == SimLogger.TASK_STATUS.COMLETED) {
-                completedTask++;
-                cost += value.getCost();
-                serviceTime += value.getServiceTime();
-                networkDelay += value.getNetworkDelay();
-                processingTime += (value.getServiceTime() - value.getNetworkDelay());
-                if (fileLogEnabled && SimSettings.getInstance().getDeepFileLoggingEnabled())
-                    appendToFile(successBW, value.toString(key));
-            } else if (value.getStatus() == SimLogger.TASK_STATUS.CREATED || value.getStatus() == SimLogger.TASK_STATUS.UPLOADING ||
-                    value.getStatus() == SimLogger.TASK_STATUS.PROCESSING || value.getStatus() == SimLogger.TASK_STATUS.DOWNLOADING) {
-                uncompletedTask++;
-            } else {
-                failedTask++;
-                if (fileLogEnabled && SimSettings.getInstance().getDeepFileLoggingEnabled()) {
-                    appendToFile(failBW, value.toString(key));
-                }
-                if (value.getStatus() == SimLogger.TASK_STATUS.REJECTED_DUE_TO_VM_CAPACITY) {
-                    rsuAssignmentsFail[value.getHostId()]++;
-                    failedTaskDueToVmCapacity++;
-                } else if (value.getStatus() == SimLogger.TASK_STATUS.REJECTED_DUE_TO_BANDWIDTH
-                        || value.getStatus() == SimLogger.TASK_STATUS.UNFINISHED_DUE_TO_BANDWIDTH) {
-                    failedTaskDuetoBw++;
-                } else if (value.getStatus() == SimLogger.TASK_STATUS.UNFINISHED_DUE_TO_MOBILITY) {
-                    failedTaskDuetoMobility++;
-                } else if (value.getStatus() == SimLogger.TASK_STATUS.REJECTED_DUE_TO_NOT_IN_NETWORK_RANGE) {
-                    failedTaskDuetoNotInNetworkRange++;
-                }
-            }
+            latencyFile = new File(outputFolder, filePrefix + "_LATENCY.log");
+            latencyFW = new FileWriter(latencyFile, true);
+            latencyBW = new BufferedWriter(latencyFW);
+            appendToFile(latencyBW, "#auto generated file!");
         }
 
-        // calculate server load
-        double totalVmLoad = 0;
-        for (VmLoadLogItem entry : vmLoadList) {
-            totalVmLoad += entry.getAvgLoad();
-            if (fileLogEnabled)
-                appendToFile(vmLoadBW, entry.toString());
+        // extract the result of each remaining task and write it to the file if required
+        // in online aggregation mode only the uncompleted tasks are left in the log
+        for (int taskId = taskLog.getFirstTaskId(); taskId < taskLog.getEndTaskId(); taskId++) {
+            if (taskLog.contains(taskId))
+                aggregate(taskId);
         }
+        if (rsuAssignmentsAll == null)
+            createRSUAssignments();
+
         double avgServiceTime = 0d, avgProcessingTime = 0d, avgNetworkDelay = 0d, avgVmLoad = 0d, avgCost = 0d,
                 avgTaskLength = 0d, avgTaskInputSize = 0d, avgTaskOutputSize = 0d;
 
@@ -265,11 +497,11 @@ public class SimLogger {
             avgServiceTime = completedTask == 0 ? 0.0 : serviceTime / (double) completedTask;
             avgProcessingTime = completedTask == 0 ? 0.0 : processingTime / (double) completedTask;
             avgNetworkDelay = completedTask == 0 ? 0.0 : networkDelay / (double) completedTask;
-            avgVmLoad = vmLoadList.size() == 0 ? 0.0 : totalVmLoad / (double) vmLoadList.size();
-            avgCost = completedTask == 0 ? 0.0 : cost / (double) completedTask;
-            avgTaskLength = totalTaskLength / taskMap.entrySet().size();
-            avgTaskInputSize = totalTaskInputSize / taskMap.entrySet().size();
-            avgTaskOutputSize = totalTaskOutputSize / taskMap.entrySet().size();
+            avgVmLoad = numberOfVmLoadSamples == 0 ? 0.0 : totalVmLoad / (double) numberOfVmLoadSamples;
+            // cost of the tasks is not modelled, avgCost stays 0
+            avgTaskLength = totalTaskLength / numberOfTasks;
+            avgTaskInputSize = totalTaskInputSize / numberOfTasks;
+            avgTaskOutputSize = totalTaskOutputSize / numberOfTasks;
 
 
             // write generic results
@@ -294,7 +526,7 @@ public class SimLogger {
             for (int i = 0; i < rsuAssignmentsAll.length; i++) {
                 int noOfTasks = rsuAssignmentsAll[i];
                 int noOfFailedTasks = rsuAssignmentsFail[i];
-                double taskRateAll = ((double) noOfTasks / taskMap.entrySet().size()) * 100d;
+                double taskRateAll = ((double) noOfTasks / numberOfTasks) * 100d;
                 double taskRateFail = failedTaskDueToVmCapacity == 0 ? 0d : ((double) noOfFailedTasks / failedTaskDueToVmCapacity) * 100d;
                 BigDecimal taskRateAllBD = new BigDecimal(Double.toString(taskRateAll));
                 taskRateAllBD = taskRateAllBD.setScale(3, RoundingMode.HALF_UP);
@@ -311,45 +543,59 @@ public class SimLogger {
                 appendToFile(taskDistBW, distResult);
             }
 
+            writeLatencyHistograms(latencyBW, -1, latencyHistograms);
+            for (int i = 0; i < rsuLatencyHistograms.length; i++) {
+                if (rsuLatencyHistograms[i] != null)
+                    writeLatencyHistograms(latencyBW, i, rsuLatencyHistograms[i]);
+            }
+
             // close open files
-            if (SimSettings.getInstance().getDeepFileLoggingEnabled()) {
-                successBW.close();
-                failBW.close();
+            if (getSettings().getDeepFileLoggingEnabled()) {
+                successLog.close();
+                failLog.close();
             }
             vmLoadBW.close();
             genericBW.close();
             taskDistBW.close();
+            latencyBW.close();
+            if (getTimeSeries() != null)
+                timeSeries.close(getSettings().getSimulationTime());
         }
 
         // printout important results
-        printLine("# of tasks: " + (failedTask + completedTask));
-        printLine("# of skipped tasks(out of are range): " + numberOfSkippedTasks);
-        printLine("# of failed tasks: " + failedTask);
-        printLine("# of completed tasks: " + completedTask);
-        printLine("# of uncompleted tasks : " + uncompletedTask);
-        printLine("# of failed tasks due to vm capacity: " + failedTaskDueToVmCapacity);
-        printLine("# of failed tasks due to Mobility/Bandwidth/Range: " + failedTaskDuetoMobility + "/" + failedTaskDuetoBw + "/" + failedTaskDuetoNotInNetworkRange);
-        printLine("percentage of failed tasks: " + String.format("%.6f", ((double) failedTask * (double) 100) / (double) (completedTask + failedTask)) + "%");
-        printLine("average service time: " + String.format("%.6f", avgServiceTime) + " seconds.");
-        printLine("average processing time: " + String.format("%.6f", avgProcessingTime) + " seconds.");
-        printLine("average network delay: " + String.format("%.6f", avgNetworkDelay) + " seconds.");
-        printLine("average server utilization: " + String.format("%.6f", avgVmLoad));
-        printLine("average task length: " + avgTaskLength);
-        printLine("average task input size: " + avgTaskInputSize);
-        printLine("average task output size: " + avgTaskOutputSize);
+        printResultLine("# of tasks: " + (failedTask + completedTask));
+        printResultLine("# of skipped tasks(out of are range): " + numberOfSkippedTasks);
+        printResultLine("# of failed tasks: " + failedTask);
+        printResultLine("# of completed tasks: " + completedTask);
+        printResultLine("# of uncompleted tasks : " + uncompletedTask);
+        printResultLine("# of failed tasks due to vm capacity: " + failedTaskDueToVmCapacity);
+        printResultLine("# of failed tasks due to Mobility/Bandwidth/Range: " + failedTaskDuetoMobility + "/" + failedTaskDuetoBw + "/" + failedTaskDuetoNotInNetworkRange);
+        printResultLine("percentage of failed tasks: " + String.format("%.6f", ((double) failedTask * (double) 100) / (double) (completedTask + failedTask)) + "%");
+        printResultLine("average service time: " + String.format("%.6f", avgServiceTime) + " seconds.");
+        printResultLine("average processing time: " + String.format("%.6f", avgProcessingTime) + " seconds.");
+        printResultLine("average network delay: " + String.format("%.6f", avgNetworkDelay) + " seconds.");
+        printResultLine("average server utilization: " + String.format("%.6f", avgVmLoad));
+        printResultLine("average task length: " + avgTaskLength);
+        printResultLine("average task input size: " + avgTaskInputSize);
+        printResultLine("average task output size: " + avgTaskOutputSize);
+        for (LATENCY_METRIC metric : LATENCY_METRIC.values()) {
+            LatencyHistogram histogram = latencyHistograms[metric.ordinal()];
+            printResultLine(metric.name().toLowerCase().replace('_', ' ') + " p50/p95/p99/p99.9: "
+                    + String.format("%.6f/%.6f/%.6f/%.6f", histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(95),
+                    histogram.getValueAtPercentile(99), histogram.getValueAtPercentile(99.9)) + " seconds.");
+        }
 
         // clear related collections (map list etc.)
-        taskMap.clear();
-        vmLoadList.clear();
+        taskLog = new TaskLogStore();
     }
 
     private void writeLocationsToFile(BufferedWriter locationBW) throws IOException {
-        TrafficLoadGenerator trafficLoadGenerator = (TrafficLoadGenerator) SimManager.getInstance().getLoadGeneratorModel();
-        MobilityModel trafficMobility = SimManager.getInstance().getMobilityModel();
+        TrafficLoadGenerator trafficLoadGenerator = (TrafficLoadGenerator) getSimManager().getLoadGeneratorModel();
+        MobilityModel trafficMobility = getSimManager().getMobilityModel();
 
-        for (int t = 0; t < (SimSettings.getInstance().getSimulationTime() / SimSettings.getInstance().getVmLocationLogInterval()); t++) {
-            Double time = t * SimSettings.getInstance().getVmLocationLogInterval();
-            if (time < SimSettings.getInstance().getWarmUpPeriod())
+        for (int t = 0; t < (getSettings().getSimulationTime() / getSettings().getVmLocationLogInterval()); t++) {
+            Double time = t * getSettings().getVmLocationLogInterval();
+            if (time < getSettings().getWarmUpPeriod())
                 continue;
 
             List<Integer> vehicleIdList = trafficLoadGenerator.getVehicleIdListByTime(time);
@@ -370,275 +616,3 @@ public class SimLogger {
         this.numberOfSkippedTasks = numberOfSkippedTasks;
     }
 }
-
-class VmLoadLogItem {
-    private double time;
-    private double[] vmLoads;
-
-    VmLoadLogItem(double _time, double[] vmLoads) {
-        time = _time;
-        this.vmLoads = vmLoads;
-    }
-
-
-    public double getAvgLoad() {
-        return vmLoads[0];
-    }
-
-
-    public String toString() {
-        String str = String.valueOf(time);
-        for (double s : vmLoads) {
-            str += SimSettings.DELIMITER + s;
-        }
-        return str;
-    }
-}
-
-class LogItem {
-    private SimLogger.TASK_STATUS status;
-    private SimLogger.NETWORK_ERRORS networkError;
-    private int datacenterId;
-    private int hostId;
-    private int vmId;
-    private int vmType;
-    private int taskType;
-    private int taskLenght;
-    private int taskInputSize;
-    private int taskOutputSize;
-    private double taskStartTime;
-    private double taskEndTime;
-    private double lanUploadDelay;
-    private double manUploadDelay;
-    private double wanUploadDelay;
-    private double lanDownloadDelay;
-    private double manDownloadDelay;
-    private double wanDownloadDelay;
-    private double bwCost;
-    private double cpuCost;
-    private boolean isInWarmUpPeriod;
-
-    LogItem(int _taskType, int _taskLenght, int _taskInputType, int _taskOutputSize) {
-        taskType = _taskType;
-        taskLenght = _taskLenght;
-        taskInputSize = _taskInputType;
-        taskOutputSize = _taskOutputSize;
-        networkError = NETWORK_ERRORS.NONE;
-        status = SimLogger.TASK_STATUS.CREATED;
-        taskEndTime = 0;
-    }
-
-    public void taskStarted(double time) {
-        taskStartTime = time;
-        status = SimLogger.TASK_STATUS.UPLOADING;
-
-        if (time < SimSettings.getInstance().getWarmUpPeriod())
-            isInWarmUpPeriod = true;
-        else
-            isInWarmUpPeriod = false;
-    }
-
-    public void setUploadDelay(double delay, NETWORK_DELAY_TYPES delayType) {
-        if (delayType == NETWORK_DELAY_TYPES.WLAN_DELAY)
-            lanUploadDelay = delay;
-        else if (delayType == NETWORK_DELAY_TYPES.MAN_DELAY)
-            manUploadDelay = delay;
-        else if (delayType == NETWORK_DELAY_TYPES.WAN_DELAY)
-            wanUploadDelay = delay;
-    }
-
-    public void setDownloadDelay(double delay, NETWORK_DELAY_TYPES delayType) {
-        if (delayType == NETWORK_DELAY_TYPES.WLAN_DELAY)
-            lanDownloadDelay = delay;
-        else if (delayType == NETWORK_DELAY_TYPES.MAN_DELAY)
-            manDownloadDelay = delay;
-        else if (delayType == NETWORK_DELAY_TYPES.WAN_DELAY)
-            wanDownloadDelay = delay;
-    }
-
-    public void taskAssigned(int _datacenterId, int _hostId, int _vmId, int _vmType) {
-        status = SimLogger.TASK_STATUS.PROCESSING;
-        datacenterId = _datacenterId;
-        hostId = _hostId;
-        vmId = _vmId;
-        vmType = _vmType;
-    }
-
-    public void taskExecuted() {
-        status = SimLogger.TASK_STATUS.DOWNLOADING;
-    }
-
-    public void taskEnded(double time) {
-        taskEndTime = time;
-        status = SimLogger.TASK_STATUS.COMLETED;
-    }
-
-    public void taskRejectedDueToVMCapacity(double time, int _vmType) {
-        vmType = _vmType;
-        taskEndTime = time;
-        status = SimLogger.TASK_STATUS.REJECTED_DUE_TO_VM_CAPACITY;
-    }
-
-    public void taskRejectedDueToVMCapacity(double time, int _hostId, int _vmType) {
-        vmType = _vmType;
-        hostId = _hostId;
-        taskEndTime = time;
-        status = SimLogger.TASK_STATUS.REJECTED_DUE_TO_VM_CAPACITY;
-    }
-
-    public void rejectedDueToNotInNetworkRange(double time) {
-        taskEndTime = time;
-        status = SimLogger.TASK_STATUS.REJECTED_DUE_TO_NOT_IN_NETWORK_RANGE;
-    }
-
-    public void taskRejectedDueToBandwidth(double time, int _vmType, NETWORK_DELAY_TYPES delayType) {
-        vmType = _vmType;
-        taskEndTime = time;
-        status = SimLogger.TASK_STATUS.REJECTED_DUE_TO_BANDWIDTH;
-
-        if (delayType == NETWORK_DELAY_TYPES.WLAN_DELAY)
-            networkError = NETWORK_ERRORS.LAN_ERROR;
-        else if (delayType == NETWORK_DELAY_TYPES.MAN_DELAY)
-            networkError = NETWORK_ERRORS.MAN_ERROR;
-        else if (delayType == NETWORK_DELAY_TYPES.WAN_DELAY)
-            networkError = NETWORK_ERRORS.WAN_ERROR;
-    }
-
-    public void taskFailedDueToBandwidth(double time, NETWORK_DELAY_TYPES delayType) {
-        taskEndTime = time;
-        status = SimLogger.TASK_STATUS.UNFINISHED_DUE_TO_BANDWIDTH;
-
-        if (delayType == NETWORK_DELAY_TYPES.WLAN_DELAY)
-            networkError = NETWORK_ERRORS.LAN_ERROR;
-        else if (delayType == NETWORK_DELAY_TYPES.MAN_DELAY)
-            networkError = NETWORK_ERRORS.MAN_ERROR;
-        else if (delayType == NETWORK_DELAY_TYPES.WAN_DELAY)
-            networkError = NETWORK_ERRORS.WAN_ERROR;
-    }
-
-    public void taskFailedDueToMobility(double time) {
-        taskEndTime = time;
-        status = SimLogger.TASK_STATUS.UNFINISHED_DUE_TO_MOBILITY;
-    }
-
-    public void setCost(double _bwCost, double _cpuCos) {
-        bwCost = _bwCost;
-        cpuCost = _cpuCos;
-    }
-
-    public boolean isInWarmUpPeriod() {
-        return isInWarmUpPeriod;
-    }
-
-    public double getCost() {
-        return bwCost + cpuCost;
-    }
-
-    public double getNetworkUploadDelay(NETWORK_DELAY_TYPES delayType) {
-        double result = 0;
-        if (delayType == NETWORK_DELAY_TYPES.WLAN_DELAY)
-            result = lanUploadDelay;
-        else if (delayType == NETWORK_DELAY_TYPES.MAN_DELAY)
-            result = manUploadDelay;
-        else if (delayType == NETWORK_DELAY_TYPES.WAN_DELAY)
-            result = wanUploadDelay;
-
-        return result;
-    }
-
-    public double getNetworkDownloadDelay(NETWORK_DELAY_TYPES delayType) {
-        double result = 0;
-        if (delayType == NETWORK_DELAY_TYPES.WLAN_DELAY)
-            result = lanDownloadDelay;
-        else if (delayType == NETWORK_DELAY_TYPES.MAN_DELAY)
-            result = manDownloadDelay;
-        else if (delayType == NETWORK_DELAY_TYPES.WAN_DELAY)
-            result = wanDownloadDelay;
-
-        return result;
-    }
-
-    public double getNetworkDelay(NETWORK_DELAY_TYPES delayType) {
-        double result = 0;
-        if (delayType == NETWORK_DELAY_TYPES.WLAN_DELAY)
-            result = lanDownloadDelay + lanUploadDelay;
-        else if (delayType == NETWORK_DELAY_TYPES.MAN_DELAY)
-            result = manDownloadDelay + manUploadDelay;
-        else if (delayType == NETWORK_DELAY_TYPES.WAN_DELAY)
-            result = wanDownloadDelay + wanUploadDelay;
-
-        return result;
-    }
-
-    public double getNetworkDelay() {
-        return lanUploadDelay +
-                manUploadDelay +
-                wanUploadDelay +
-                lanDownloadDelay +
-                manDownloadDelay +
-                wanDownloadDelay;
-    }
-
-    public double getServiceTime() {
-        return taskEndTime - taskStartTime;
-    }
-
-    public SimLogger.TASK_STATUS getStatus() {
-        return status;
-    }
-
-    public SimLogger.NETWORK_ERRORS getNetworkError() {
-        return networkError;
-    }
-
-    public int getVmType() {
-        return vmType;
-    }
-
-    public int getTaskType() {
-        return taskType;
-    }
-
-    public String toString(int taskId) {
-        String result = taskId + SimSettings.DELIMITER + datacenterId + SimSettings.DELIMITER + hostId
-                + SimSettings.DELIMITER + vmId + SimSettings.DELIMITER + vmType + SimSettings.DELIMITER + taskType
-                + SimSettings.DELIMITER + taskLenght + SimSettings.DELIMITER + taskInputSize + SimSettings.DELIMITER
-                + taskOutputSize + SimSettings.DELIMITER + taskStartTime + SimSettings.DELIMITER + taskEndTime
-                + SimSettings.DELIMITER;
-
-        if (status == SimLogger.TASK_STATUS.COMLETED) {
-            result += getNetworkDelay() + SimSettings.DELIMITER;
-            result += getNetworkDelay(NETWORK_DELAY_TYPES.WLAN_DELAY) + SimSettings.DELIMITER;
-            result += getNetworkDelay(NETWORK_DELAY_TYPES.MAN_DELAY) + SimSettings.DELIMITER;
-            result += getNetworkDelay(NETWORK_DELAY_TYPES.WAN_DELAY);
-        } else if (status == SimLogger.TASK_STATUS.REJECTED_DUE_TO_VM_CAPACITY)
-            result += "1"; // failure reason 1
-        else if (status == SimLogger.TASK_STATUS.REJECTED_DUE_TO_BANDWIDTH)
-            result += "2"; // failure reason 2
-        else if (status == SimLogger.TASK_STATUS.UNFINISHED_DUE_TO_BANDWIDTH)
-            result += "3"; // failure reason 3
-        else if (status == SimLogger.TASK_STATUS.UNFINISHED_DUE_TO_MOBILITY)
-            result += "4"; // failure reason 4
-        else if (status == SimLogger.TASK_STATUS.REJECTED_DUE_TO_NOT_IN_NETWORK_RANGE)
-            result += "5"; // failure reason 5
-        else
-            result += "0"; // default failure reason
-        return result;
-    }
-
-    public int getTaskLenght() {
-        return taskLenght;
-    }
-
-    public int getTaskInputSize() {
-        return taskInputSize;
-    }
-
-    public int getTaskOutputSize() {
-        return taskOutputSize;
-    }
-
-    public int getHostId() {
-        return hostId;
-    }
-}
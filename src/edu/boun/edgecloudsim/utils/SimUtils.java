@@ -18,6 +18,18 @@ public class SimUtils {
 
     public static final Random RNG = new Random(System.currentTimeMillis());
     
+    public static void setSeed(long seed) {
+    	RNG.setSeed(seed);
+    }
+    
+    //derives an independent seed for the given key (e.g. a vehicle id) from a parent seed
+    public static long deriveSeed(long seed, long key) {
+    	long z = seed + (key + 1) * 0x9E3779B97F4A7C15L;
+    	z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    	z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    	return z ^ (z >>> 31);
+    }
+    
     public static int getRandomNumber(int start, int end) {
     	//return pd.sample();
 		long range = (long)end - (long)start + 1;
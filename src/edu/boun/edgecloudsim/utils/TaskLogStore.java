@@ -0,0 +1,407 @@
+/*
+ * Title:        EdgeCloudSim - Task Log Store
+ *
+ * Description:
+ * TaskLogStore keeps the log of the tasks in primitive columns indexed
+ * by task id. Task ids are given sequentially by the mobile device
+ * managers, so the id is the position in the columns after subtracting
+ * the id of the first stored task. Removed tasks at the beginning of the
+ * columns are compacted away, hence the memory is bounded by the tasks
+ * which are still in the log.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.utils;
+
+import edu.boun.edgecloudsim.core.SimSettings;
+import edu.boun.edgecloudsim.core.SimSettings.NETWORK_DELAY_TYPES;
+
+import java.util.Arrays;
+
+class TaskLogStore {
+    private static final byte EMPTY = -1;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final SimLogger.TASK_STATUS[] STATUS_VALUES = SimLogger.TASK_STATUS.values();
+    private static final SimLogger.NETWORK_ERRORS[] NETWORK_ERROR_VALUES = SimLogger.NETWORK_ERRORS.values();
+
+    private int baseTaskId; //id of the task in the first slot
+    private int first; //first slot which may hold a task
+    private int end; //one past the last used slot
+    private int size;
+
+    private byte[] status;
+    private byte[] networkError;
+    private boolean[] inWarmUpPeriod;
+    private int[] datacenterId;
+    private int[] hostId;
+    private int[] vmId;
+    private int[] vmType;
+    private int[] taskType;
+    private int[] taskLenght;
+    private int[] taskInputSize;
+    private int[] taskOutputSize;
+    private double[] taskStartTime;
+    private double[] taskEndTime;
+    private double[] lanUploadDelay;
+    private double[] manUploadDelay;
+    private double[] wanUploadDelay;
+    private double[] lanDownloadDelay;
+    private double[] manDownloadDelay;
+    private double[] wanDownloadDelay;
+
+    TaskLogStore() {
+        status = new byte[INITIAL_CAPACITY];
+        Arrays.fill(status, EMPTY);
+        networkError = new byte[INITIAL_CAPACITY];
+        inWarmUpPeriod = new boolean[INITIAL_CAPACITY];
+        datacenterId = new int[INITIAL_CAPACITY];
+        hostId = new int[INITIAL_CAPACITY];
+        vmId = new int[INITIAL_CAPACITY];
+        vmType = new int[INITIAL_CAPACITY];
+        taskType = new int[INITIAL_CAPACITY];
+        taskLenght = new int[INITIAL_CAPACITY];
+        taskInputSize = new int[INITIAL_CAPACITY];
+        taskOutputSize = new int[INITIAL_CAPACITY];
+        taskStartTime = new double[INITIAL_CAPACITY];
+        taskEndTime = new double[INITIAL_CAPACITY];
+        lanUploadDelay = new double[INITIAL_CAPACITY];
+        manUploadDelay = new double[INITIAL_CAPACITY];
+        wanUploadDelay = new double[INITIAL_CAPACITY];
+        lanDownloadDelay = new double[INITIAL_CAPACITY];
+        manDownloadDelay = new double[INITIAL_CAPACITY];
+        wanDownloadDelay = new double[INITIAL_CAPACITY];
+    }
+
+    void add(int taskId, int _taskType, int _taskLenght, int _taskInputSize, int _taskOutputSize) {
+        if (taskId < baseTaskId + first)
+            throw new IllegalArgumentException("Task #" + taskId + " is older than the tasks in the log");
+
+        int slot = taskId - baseTaskId;
+        if (slot >= status.length) {
+            //reuse the space of the removed tasks before growing
+            int requiredCapacity = slot - first + 1;
+            int capacity = status.length;
+            while (capacity < requiredCapacity)
+                capacity *= 2;
+            if (first > 0 && capacity == status.length && requiredCapacity > capacity / 2)
+                capacity *= 2;
+            relocate(capacity);
+            slot = taskId - baseTaskId;
+        }
+
+        if (status[slot] == EMPTY)
+            size++;
+        status[slot] = (byte) SimLogger.TASK_STATUS.CREATED.ordinal();
+        networkError[slot] = (byte) SimLogger.NETWORK_ERRORS.NONE.ordinal();
+        inWarmUpPeriod[slot] = false;
+        datacenterId[slot] = 0;
+        hostId[slot] = 0;
+        vmId[slot] = 0;
+        vmType[slot] = 0;
+        taskType[slot] = _taskType;
+        taskLenght[slot] = _taskLenght;
+        taskInputSize[slot] = _taskInputSize;
+        taskOutputSize[slot] = _taskOutputSize;
+        taskStartTime[slot] = 0;
+        taskEndTime[slot] = 0;
+        lanUploadDelay[slot] = 0;
+        manUploadDelay[slot] = 0;
+        wanUploadDelay[slot] = 0;
+        lanDownloadDelay[slot] = 0;
+        manDownloadDelay[slot] = 0;
+        wanDownloadDelay[slot] = 0;
+        end = Math.max(end, slot + 1);
+    }
+
+    void remove(int taskId) {
+        status[slotOf(taskId)] = EMPTY;
+        size--;
+
+        while (first < end && status[first] == EMPTY)
+            first++;
+        if (first == end) {
+            baseTaskId += first;
+            first = end = 0;
+        } else if (first >= status.length / 2) {
+            relocate(status.length);
+        }
+    }
+
+    boolean contains(int taskId) {
+        int slot = taskId - baseTaskId;
+        return slot >= first && slot < end && status[slot] != EMPTY;
+    }
+
+    int size() {
+        return size;
+    }
+
+    //ids of the stored tasks are in [getFirstTaskId(), getEndTaskId()), use contains() to skip the removed ones
+    int getFirstTaskId() {
+        return baseTaskId + first;
+    }
+
+    int getEndTaskId() {
+        return baseTaskId + end;
+    }
+
+    void taskStarted(int taskId, double time, double warmUpPeriod) {
+        int slot = slotOf(taskId);
+        taskStartTime[slot] = time;
+        status[slot] = (byte) SimLogger.TASK_STATUS.UPLOADING.ordinal();
+        inWarmUpPeriod[slot] = time < warmUpPeriod;
+    }
+
+    void setUploadDelay(int taskId, double delay, NETWORK_DELAY_TYPES delayType) {
+        int slot = slotOf(taskId);
+        if (delayType == NETWORK_DELAY_TYPES.WLAN_DELAY)
+            lanUploadDelay[slot] = delay;
+        else if (delayType == NETWORK_DELAY_TYPES.MAN_DELAY)
+            manUploadDelay[slot] = delay;
+        else if (delayType == NETWORK_DELAY_TYPES.WAN_DELAY)
+            wanUploadDelay[slot] = delay;
+    }
+
+    void setDownloadDelay(int taskId, double delay, NETWORK_DELAY_TYPES delayType) {
+        int slot = slotOf(taskId);
+        if (delayType == NETWORK_DELAY_TYPES.WLAN_DELAY)
+            lanDownloadDelay[slot] = delay;
+        else if (delayType == NETWORK_DELAY_TYPES.MAN_DELAY)
+            manDownloadDelay[slot] = delay;
+        else if (delayType == NETWORK_DELAY_TYPES.WAN_DELAY)
+            wanDownloadDelay[slot] = delay;
+    }
+
+    void taskAssigned(int taskId, int _datacenterId, int _hostId, int _vmId, int _vmType) {
+        int slot = slotOf(taskId);
+        status[slot] = (byte) SimLogger.TASK_STATUS.PROCESSING.ordinal();
+        datacenterId[slot] = _datacenterId;
+        hostId[slot] = _hostId;
+        vmId[slot] = _vmId;
+        vmType[slot] = _vmType;
+    }
+
+    void taskExecuted(int taskId) {
+        status[slotOf(taskId)] = (byte) SimLogger.TASK_STATUS.DOWNLOADING.ordinal();
+    }
+
+    void taskEnded(int taskId, double time) {
+        taskFinished(slotOf(taskId), time, SimLogger.TASK_STATUS.COMLETED);
+    }
+
+    void taskRejectedDueToVMCapacity(int taskId, double time, int _vmType) {
+        int slot = slotOf(taskId);
+        vmType[slot] = _vmType;
+        taskFinished(slot, time, SimLogger.TASK_STATUS.REJECTED_DUE_TO_VM_CAPACITY);
+    }
+
+    void taskRejectedDueToVMCapacity(int taskId, double time, int _hostId, int _vmType) {
+        int slot = slotOf(taskId);
+        vmType[slot] = _vmType;
+        hostId[slot] = _hostId;
+        taskFinished(slot, time, SimLogger.TASK_STATUS.REJECTED_DUE_TO_VM_CAPACITY);
+    }
+
+    void rejectedDueToNotInNetworkRange(int taskId, double time) {
+        taskFinished(slotOf(taskId), time, SimLogger.TASK_STATUS.REJECTED_DUE_TO_NOT_IN_NETWORK_RANGE);
+    }
+
+    void taskRejectedDueToBandwidth(int taskId, double time, int _vmType, NETWORK_DELAY_TYPES delayType) {
+        int slot = slotOf(taskId);
+        vmType[slot] = _vmType;
+        taskFinished(slot, time, SimLogger.TASK_STATUS.REJECTED_DUE_TO_BANDWIDTH);
+        setNetworkError(slot, delayType);
+    }
+
+    void taskFailedDueToBandwidth(int taskId, double time, NETWORK_DELAY_TYPES delayType) {
+        int slot = slotOf(taskId);
+        taskFinished(slot, time, SimLogger.TASK_STATUS.UNFINISHED_DUE_TO_BANDWIDTH);
+        setNetworkError(slot, delayType);
+    }
+
+    void taskFailedDueToMobility(int taskId, double time) {
+        taskFinished(slotOf(taskId), time, SimLogger.TASK_STATUS.UNFINISHED_DUE_TO_MOBILITY);
+    }
+
+    boolean isInWarmUpPeriod(int taskId) {
+        return inWarmUpPeriod[slotOf(taskId)];
+    }
+
+    SimLogger.TASK_STATUS getStatus(int taskId) {
+        return STATUS_VALUES[status[slotOf(taskId)]];
+    }
+
+    SimLogger.NETWORK_ERRORS getNetworkError(int taskId) {
+        return NETWORK_ERROR_VALUES[networkError[slotOf(taskId)]];
+    }
+
+    int getHostId(int taskId) {
+        return hostId[slotOf(taskId)];
+    }
+
+    int getVmType(int taskId) {
+        return vmType[slotOf(taskId)];
+    }
+
+    int getTaskType(int taskId) {
+        return taskType[slotOf(taskId)];
+    }
+
+    int getTaskLenght(int taskId) {
+        return taskLenght[slotOf(taskId)];
+    }
+
+    int getTaskInputSize(int taskId) {
+        return taskInputSize[slotOf(taskId)];
+    }
+
+    int getTaskOutputSize(int taskId) {
+        return taskOutputSize[slotOf(taskId)];
+    }
+
+    double getStartTime(int taskId) {
+        return taskStartTime[slotOf(taskId)];
+    }
+
+    double getServiceTime(int taskId) {
+        int slot = slotOf(taskId);
+        return taskEndTime[slot] - taskStartTime[slot];
+    }
+
+    double getUploadDelay(int taskId) {
+        int slot = slotOf(taskId);
+        return lanUploadDelay[slot] + manUploadDelay[slot] + wanUploadDelay[slot];
+    }
+
+    double getDownloadDelay(int taskId) {
+        int slot = slotOf(taskId);
+        return lanDownloadDelay[slot] + manDownloadDelay[slot] + wanDownloadDelay[slot];
+    }
+
+    double getNetworkDelay(int taskId) {
+        int slot = slotOf(taskId);
+        return lanUploadDelay[slot] +
+                manUploadDelay[slot] +
+                wanUploadDelay[slot] +
+                lanDownloadDelay[slot] +
+                manDownloadDelay[slot] +
+                wanDownloadDelay[slot];
+    }
+
+    double getNetworkDelay(int taskId, NETWORK_DELAY_TYPES delayType) {
+        int slot = slotOf(taskId);
+        double result = 0;
+        if (delayType == NETWORK_DELAY_TYPES.WLAN_DELAY)
+            result = lanDownloadDelay[slot] + lanUploadDelay[slot];
+        else if (delayType == NETWORK_DELAY_TYPES.MAN_DELAY)
+            result = manDownloadDelay[slot] + manUploadDelay[slot];
+        else if (delayType == NETWORK_DELAY_TYPES.WAN_DELAY)
+            result = wanDownloadDelay[slot] + wanUploadDelay[slot];
+
+        return result;
+    }
+
+    String toString(int taskId) {
+        int slot = slotOf(taskId);
+        String result = taskId + SimSettings.DELIMITER + datacenterId[slot] + SimSettings.DELIMITER + hostId[slot]
+                + SimSettings.DELIMITER + vmId[slot] + SimSettings.DELIMITER + vmType[slot] + SimSettings.DELIMITER + taskType[slot]
+                + SimSettings.DELIMITER + taskLenght[slot] + SimSettings.DELIMITER + taskInputSize[slot] + SimSettings.DELIMITER
+                + taskOutputSize[slot] + SimSettings.DELIMITER + taskStartTime[slot] + SimSettings.DELIMITER + taskEndTime[slot]
+                + SimSettings.DELIMITER;
+
+        SimLogger.TASK_STATUS taskStatus = STATUS_VALUES[status[slot]];
+        if (taskStatus == SimLogger.TASK_STATUS.COMLETED) {
+            result += getNetworkDelay(taskId) + SimSettings.DELIMITER;
+            result += getNetworkDelay(taskId, NETWORK_DELAY_TYPES.WLAN_DELAY) + SimSettings.DELIMITER;
+            result += getNetworkDelay(taskId, NETWORK_DELAY_TYPES.MAN_DELAY) + SimSettings.DELIMITER;
+            result += getNetworkDelay(taskId, NETWORK_DELAY_TYPES.WAN_DELAY);
+        } else if (taskStatus == SimLogger.TASK_STATUS.REJECTED_DUE_TO_VM_CAPACITY)
+            result += "1"; // failure reason 1
+        else if (taskStatus == SimLogger.TASK_STATUS.REJECTED_DUE_TO_BANDWIDTH)
+            result += "2"; // failure reason 2
+        else if (taskStatus == SimLogger.TASK_STATUS.UNFINISHED_DUE_TO_BANDWIDTH)
+            result += "3"; // failure reason 3
+        else if (taskStatus == SimLogger.TASK_STATUS.UNFINISHED_DUE_TO_MOBILITY)
+            result += "4"; // failure reason 4
+        else if (taskStatus == SimLogger.TASK_STATUS.REJECTED_DUE_TO_NOT_IN_NETWORK_RANGE)
+            result += "5"; // failure reason 5
+        else
+            result += "0"; // default failure reason
+        return result;
+    }
+
+    private int slotOf(int taskId) {
+        int slot = taskId - baseTaskId;
+        if (slot < first || slot >= end || status[slot] == EMPTY)
+            throw new IllegalArgumentException("Task #" + taskId + " is not in the log");
+        return slot;
+    }
+
+    private void taskFinished(int slot, double time, SimLogger.TASK_STATUS taskStatus) {
+        taskEndTime[slot] = time;
+        status[slot] = (byte) taskStatus.ordinal();
+    }
+
+    private void setNetworkError(int slot, NETWORK_DELAY_TYPES delayType) {
+        if (delayType == NETWORK_DELAY_TYPES.WLAN_DELAY)
+            networkError[slot] = (byte) SimLogger.NETWORK_ERRORS.LAN_ERROR.ordinal();
+        else if (delayType == NETWORK_DELAY_TYPES.MAN_DELAY)
+            networkError[slot] = (byte) SimLogger.NETWORK_ERRORS.MAN_ERROR.ordinal();
+        else if (delayType == NETWORK_DELAY_TYPES.WAN_DELAY)
+            networkError[slot] = (byte) SimLogger.NETWORK_ERRORS.WAN_ERROR.ordinal();
+    }
+
+    //moves the used slots to the beginning of the columns with the given capacity
+    private void relocate(int capacity) {
+        status = move(status, capacity);
+        Arrays.fill(status, end - first, capacity, EMPTY);
+        networkError = move(networkError, capacity);
+        inWarmUpPeriod = move(inWarmUpPeriod, capacity);
+        datacenterId = move(datacenterId, capacity);
+        hostId = move(hostId, capacity);
+        vmId = move(vmId, capacity);
+        vmType = move(vmType, capacity);
+        taskType = move(taskType, capacity);
+        taskLenght = move(taskLenght, capacity);
+        taskInputSize = move(taskInputSize, capacity);
+        taskOutputSize = move(taskOutputSize, capacity);
+        taskStartTime = move(taskStartTime, capacity);
+        taskEndTime = move(taskEndTime, capacity);
+        lanUploadDelay = move(lanUploadDelay, capacity);
+        manUploadDelay = move(manUploadDelay, capacity);
+        wanUploadDelay = move(wanUploadDelay, capacity);
+        lanDownloadDelay = move(lanDownloadDelay, capacity);
+        manDownloadDelay = move(manDownloadDelay, capacity);
+        wanDownloadDelay = move(wanDownloadDelay, capacity);
+
+        baseTaskId += first;
+        end -= first;
+        first = 0;
+    }
+
+    private byte[] move(byte[] column, int capacity) {
+        byte[] result = capacity == column.length ? column : new byte[capacity];
+        System.arraycopy(column, first, result, 0, end - first);
+        return result;
+    }
+
+    private boolean[] move(boolean[] column, int capacity) {
+        boolean[] result = capacity == column.length ? column : new boolean[capacity];
+        System.arraycopy(column, first, result, 0, end - first);
+        return result;
+    }
+
+    private int[] move(int[] column, int capacity) {
+        int[] result = capacity == column.length ? column : new int[capacity];
+        System.arraycopy(column, first, result, 0, end - first);
+        return result;
+    }
+
+    private double[] move(double[] column, int capacity) {
+        double[] result = capacity == column.length ? column : new double[capacity];
+        System.arraycopy(column, first, result, 0, end - first);
+        return result;
+    }
+}
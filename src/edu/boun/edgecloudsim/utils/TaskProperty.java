@@ -44,13 +44,27 @@ public class TaskProperty {
 	}
 
 	public TaskProperty(int mobileDeviceId, double startTime, ExponentialDistribution[] expRngList) {
+		this(mobileDeviceId, startTime, expRngList, (int)SimSettings.getInstance().getTaskLookUpTable()[0][8]);
+	}
+
+	public TaskProperty(int mobileDeviceId, double startTime, ExponentialDistribution[] expRngList, int pesNumber) {
 		this.mobileDeviceId = mobileDeviceId;
 		this.startTime = startTime;
 		taskType = 0;
 		inputFileSize = (long)expRngList[0].sample();
 		outputFileSize = (long)expRngList[1].sample();
 		length = (long) expRngList[2].sample();
-		pesNumber = (int)SimSettings.getInstance().getTaskLookUpTable()[0][8];
+		this.pesNumber = pesNumber;
+	}
+
+	public TaskProperty(int mobileDeviceId, double startTime, long inputFileSize, long outputFileSize, long length, int pesNumber) {
+		this.mobileDeviceId = mobileDeviceId;
+		this.startTime = startTime;
+		taskType = 0;
+		this.inputFileSize = inputFileSize;
+		this.outputFileSize = outputFileSize;
+		this.length = length;
+		this.pesNumber = pesNumber;
 	}
 
 	public TaskProperty(Integer mobileDeviceId, double startTime, double input, double output, double len) {
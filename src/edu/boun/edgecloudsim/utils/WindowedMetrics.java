@@ -0,0 +1,120 @@
+/*
+ * Title:        EdgeCloudSim - Windowed Metrics
+ *
+ * Description:
+ * WindowedMetrics counts the submitted, completed and failed tasks and
+ * the mean utilization of each RSU in fixed time windows. Tasks are
+ * attributed to the window in which they started. Only a few windows are
+ * kept in circular primitive buffers, a window is written to the time
+ * series file once the tasks started in it can be expected to be finished.
+ *
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ * Copyright (c) 2017, Bogazici University, Istanbul, Turkey
+ */
+
+package edu.boun.edgecloudsim.utils;
+
+import edu.boun.edgecloudsim.core.SimSettings;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Arrays;
+
+public class WindowedMetrics {
+    public static enum COUNTER {
+        SUBMITTED, COMPLETED, FAILED_DUE_TO_VM_CAPACITY, FAILED_DUE_TO_BANDWIDTH, FAILED_DUE_TO_MOBILITY,
+        FAILED_DUE_TO_NOT_IN_NETWORK_RANGE
+    }
+
+    //host id of the tasks which are not served by an RSU, its utilization is the average of all RSUs
+    public static final int NO_RSU = -1;
+
+    //a window is written when the window after the next one starts
+    private static final int FLUSH_DELAY_IN_WINDOWS = 2;
+    private static final int RETAINED_WINDOWS = FLUSH_DELAY_IN_WINDOWS + 1;
+    private static final int COUNTER_COUNT = COUNTER.values().length;
+
+    private final double windowSize;
+    private final int numberOfRows;
+    private final BufferedWriter writer;
+
+    private final int[][] counts; //[slot][row * COUNTER_COUNT + counter]
+    private final double[][] utilizationSums; //[slot][row]
+    private final int[] utilizationSamples; //[slot]
+    private long nextWindowToFlush;
+
+    public WindowedMetrics(File file, double windowSize, int numberOfRSUs) throws IOException {
+        this.windowSize = windowSize;
+        this.numberOfRows = numberOfRSUs + 1;
+        counts = new int[RETAINED_WINDOWS][numberOfRows * COUNTER_COUNT];
+        utilizationSums = new double[RETAINED_WINDOWS][numberOfRows];
+        utilizationSamples = new int[RETAINED_WINDOWS];
+
+        writer = new BufferedWriter(new FileWriter(file, true));
+        writer.write("#auto generated file!");
+        writer.newLine();
+    }
+
+    public void count(double startTime, int hostId, COUNTER counter) throws IOException {
+        int slot = getSlot(startTime);
+        counts[slot][getRow(hostId) * COUNTER_COUNT + counter.ordinal()]++;
+    }
+
+    //loads[0] is the average utilization, loads[i + 1] is the utilization of the RSU with host id i
+    public void utilizationSampled(double time, double[] loads) throws IOException {
+        int slot = getSlot(time);
+        utilizationSums[slot][0] += loads[0];
+        for (int row = 1; row < numberOfRows && row < loads.length; row++)
+            utilizationSums[slot][row] += loads[row];
+        utilizationSamples[slot]++;
+    }
+
+    //writes the windows which can not get new tasks anymore
+    public void advance(double time) throws IOException {
+        long window = (long) (time / windowSize);
+        while (nextWindowToFlush <= window - FLUSH_DELAY_IN_WINDOWS)
+            flush();
+    }
+
+    //writes the remaining windows which start before the end of the simulation and closes the file
+    public void close(double simulationTime) throws IOException {
+        long lastWindow = (long) Math.ceil(simulationTime / windowSize) - 1;
+        while (nextWindowToFlush <= lastWindow)
+            flush();
+        writer.close();
+    }
+
+    private int getSlot(double time) throws IOException {
+        advance(time);
+        //a task which started before the oldest retained window is counted in that window
+        long window = Math.max(nextWindowToFlush, (long) (time / windowSize));
+        return (int) (window % RETAINED_WINDOWS);
+    }
+
+    private static int getRow(int hostId) {
+        return hostId == NO_RSU ? 0 : hostId + 1;
+    }
+
+    // windowStart;hostId;submitted;completed;failed due to vm capacity/bandwidth/mobility/range;mean utilization
+    private void flush() throws IOException {
+        int slot = (int) (nextWindowToFlush % RETAINED_WINDOWS);
+        double windowStart = nextWindowToFlush * windowSize;
+        for (int row = 0; row < numberOfRows; row++) {
+            StringBuilder line = new StringBuilder();
+            line.append(windowStart).append(SimSettings.DELIMITER).append(row - 1);
+            for (int counter = 0; counter < COUNTER_COUNT; counter++)
+                line.append(SimSettings.DELIMITER).append(counts[slot][row * COUNTER_COUNT + counter]);
+            double meanUtilization = utilizationSamples[slot] == 0 ? 0 : utilizationSums[slot][row] / utilizationSamples[slot];
+            line.append(SimSettings.DELIMITER).append(meanUtilization);
+            writer.write(line.toString());
+            writer.newLine();
+        }
+
+        Arrays.fill(counts[slot], 0);
+        Arrays.fill(utilizationSums[slot], 0);
+        utilizationSamples[slot] = 0;
+        nextWindowToFlush++;
+    }
+}